@@ -34,8 +34,12 @@ import io.vertx.ext.web.openapi.RouterBuilderOptions;
 import io.vertx.ext.web.openapi.impl.ContractEndpointHandler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bf2.admin.kafka.admin.AdminClientPool;
+import org.bf2.admin.kafka.admin.ConsumerGroupLagHistory;
+import org.bf2.admin.kafka.admin.ConsumerGroupLagSampler;
 import org.bf2.admin.kafka.admin.HttpMetrics;
 import org.bf2.admin.kafka.admin.KafkaAdminConfigRetriever;
+import org.bf2.admin.kafka.admin.LogEndOffsetCache;
 import org.bf2.admin.kafka.admin.Operations;
 import org.bf2.admin.kafka.admin.handlers.RestOperations;
 
@@ -77,14 +81,38 @@ public class AdminServer extends AbstractVerticle {
 
     private final KafkaAdminConfigRetriever config = new KafkaAdminConfigRetriever();
     private final HttpMetrics httpMetrics = new HttpMetrics();
+    private final LogEndOffsetCache offsetCache = new LogEndOffsetCache(config);
+    private final ConsumerGroupLagHistory lagHistory = new ConsumerGroupLagHistory(config);
+    private AdminClientPool clientPool;
 
     @Override
     public void start(final Promise<Void> startServer) {
+        clientPool = new AdminClientPool(vertx, config);
+
+        if (!config.isOauthEnabled() && !config.isBasicEnabled()) {
+            // All requests use the same configuration, create the client up-front
+            clientPool.share(config.getAcConfig());
+        }
+
+        if (config.getLagSamplerIntervalMs() > 0) {
+            vertx.deployVerticle(new ConsumerGroupLagSampler(config, clientPool, httpMetrics, offsetCache, lagHistory))
+                .onFailure(cause -> LOGGER.error("Consumer group lag sampler failed to start: {}", cause.getMessage()));
+        }
+
         startResourcesServer()
             .compose(nothing -> startManagementServer())
             .onFailure(startServer::fail);
     }
 
+    @Override
+    public void stop(final Promise<Void> stopServer) {
+        if (clientPool != null) {
+            clientPool.close().onComplete(closed -> stopServer.complete());
+        } else {
+            stopServer.complete();
+        }
+    }
+
     private Future<Void> startManagementServer() {
         Promise<Void> promise = Promise.promise();
 
@@ -307,17 +335,20 @@ public class AdminServer extends AbstractVerticle {
     }
 
     private void assignRoutes(final RouterBuilder routerFactory) {
-        RestOperations ro = new RestOperations(config, httpMetrics);
+        RestOperations ro = new RestOperations(config, clientPool, httpMetrics, offsetCache, lagHistory);
 
         Map<String, Handler<RoutingContext>> routes = Map.ofEntries(Map.entry(Operations.GET_TOPIC, ro::describeTopic),
                                                              Map.entry(Operations.GET_TOPICS_LIST, ro::listTopics),
                                                              Map.entry(Operations.DELETE_TOPIC, ro::deleteTopic),
                                                              Map.entry(Operations.CREATE_TOPIC, ro::createTopic),
                                                              Map.entry(Operations.UPDATE_TOPIC, ro::updateTopic),
+                                                             Map.entry(Operations.GET_TOPIC_CONSUMER_LAG, ro::getTopicConsumerLag),
                                                              Map.entry(Operations.GET_CONSUMER_GROUP, ro::describeGroup),
                                                              Map.entry(Operations.GET_CONSUMER_GROUPS_LIST, ro::listGroups),
                                                              Map.entry(Operations.DELETE_CONSUMER_GROUP, ro::deleteGroup),
                                                              Map.entry(Operations.RESET_CONSUMER_GROUP_OFFSET, ro::resetGroupOffset),
+                                                             Map.entry(Operations.GET_CONSUMER_GROUP_LAG_HISTORY, ro::getGroupLagHistory),
+                                                             Map.entry(Operations.EXPORT_CONSUMER_GROUP_OFFSETS, ro::exportGroupOffsets),
                                                              Map.entry(Operations.GET_ACL_RESOURCE_OPERATIONS, ro::getAclResourceOperations),
                                                              Map.entry(Operations.GET_ACLS, ro::describeAcls),
                                                              Map.entry(Operations.CREATE_ACL, ro::createAcl),
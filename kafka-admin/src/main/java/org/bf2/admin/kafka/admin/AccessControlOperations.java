@@ -68,8 +68,12 @@ public class AccessControlOperations {
     }
 
     public AccessControlOperations(KafkaAdminConfigRetriever config) {
+        this(config.getAclResourceOperations());
+    }
+
+    public AccessControlOperations(String resourceOperations) {
         try {
-            this.resourceOperations = new ObjectMapper().readValue(config.getAclResourceOperations(), TYPEREF_MAP_LIST_STRING);
+            this.resourceOperations = new ObjectMapper().readValue(resourceOperations, TYPEREF_MAP_LIST_STRING);
         } catch (JsonProcessingException e) {
             log.error("Failed to parse value of ACL resource-operations", e);
             throw new AccessControlOperationException(e);
@@ -0,0 +1,402 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.AuthenticationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of Kafka Admin clients keyed by a hash of the effective client configuration,
+ * which includes the credentials (OAuth access token or SASL/PLAIN username and password)
+ * of the requesting user. Requests presenting the same credentials share a connected
+ * client instead of paying for a new connection, TLS handshake, SASL login and metadata
+ * bootstrap on every request.
+ * <p>
+ * Pooled clients are closed when they have been idle longer than the configured timeout,
+ * when the credential they were created with expires, when they are invalidated following
+ * a failure, or when the pool exceeds its maximum size (least recently used first). A client
+ * is never closed while a request holds a {@link Lease} on it.
+ * <p>
+ * A configuration may be registered as shared using {@link #share(Map)}, e.g. when broker
+ * authentication is disabled and all requests use the same configuration. The client for a
+ * shared configuration is created immediately, is exempt from idle and size eviction, and is
+ * re-created as soon as it has been invalidated.
+ */
+public class AdminClientPool {
+
+    private static final Logger log = LogManager.getLogger(AdminClientPool.class);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Value used for the credential expiration when the credential does not expire.
+     */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final Vertx vertx;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Map<String, Object>> shared = new HashMap<>();
+    private final long evictionTimer;
+
+    public AdminClientPool(Vertx vertx, int maxSize, long idleTimeoutMs) {
+        this.vertx = vertx;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.evictionTimer = vertx.setPeriodic(Math.max(1000, idleTimeoutMs / 2), timerId -> evict());
+    }
+
+    public AdminClientPool(Vertx vertx, KafkaAdminConfigRetriever config) {
+        this(vertx, config.getAdminClientPoolMaxSize(), config.getAdminClientPoolIdleTimeoutMs());
+    }
+
+    /**
+     * A single borrower's hold on a pooled client. Each lease must be either
+     * released or invalidated exactly once when the borrower has finished
+     * using the client.
+     */
+    public class Lease {
+        private final Entry entry;
+        private boolean returned;
+
+        Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public KafkaAdminClient client() {
+            return entry.client;
+        }
+
+        public Admin admin() {
+            return entry.admin;
+        }
+
+        /**
+         * Return the client to the pool for use by subsequent requests.
+         */
+        public void release() {
+            giveBack(false);
+        }
+
+        /**
+         * Return the client and remove it from the pool, e.g. when it has failed
+         * to authenticate with the broker and should not be used again.
+         */
+        public void invalidate() {
+            giveBack(true);
+        }
+
+        private void giveBack(boolean retire) {
+            synchronized (AdminClientPool.this) {
+                if (returned) {
+                    return;
+                }
+                returned = true;
+            }
+            AdminClientPool.this.giveBack(entry, retire);
+        }
+    }
+
+    /**
+     * Obtain a lease on a client created with the given configuration, creating and
+     * connecting a new client (on a worker thread) when no matching client is pooled.
+     *
+     * @param acConfig the Admin client configuration, including credentials
+     * @param expiresAt time (epoch milliseconds) after which the credentials in the
+     *        configuration are no longer valid, or {@link #NO_EXPIRY}
+     * @return future lease on a client for the configuration
+     */
+    public Future<Lease> acquire(Map<String, Object> acConfig, long expiresAt) {
+        final String key = hash(acConfig);
+        final long now = System.currentTimeMillis();
+        final Entry entry;
+        final List<Entry> retired = new ArrayList<>();
+
+        synchronized (this) {
+            entry = entry(key, acConfig, expiresAt, now, retired);
+            entry.borrowers++;
+        }
+
+        retired.forEach(this::closeIfUnused);
+
+        return entry.creation
+            .map(nothing -> new Lease(entry))
+            .onFailure(error -> giveBack(entry, true));
+    }
+
+    /**
+     * Register the given configuration as shared and create its client without
+     * waiting for the first request to use it.
+     *
+     * @param acConfig the Admin client configuration
+     * @return future completed once the shared client has been created
+     */
+    public Future<Void> share(Map<String, Object> acConfig) {
+        final String key = hash(acConfig);
+        final List<Entry> retired = new ArrayList<>();
+        final Entry entry;
+
+        synchronized (this) {
+            shared.put(key, acConfig);
+            entry = entry(key, acConfig, NO_EXPIRY, System.currentTimeMillis(), retired);
+        }
+
+        retired.forEach(this::closeIfUnused);
+
+        return entry.creation
+            .onSuccess(nothing -> log.info("Shared Admin client created"))
+            .onFailure(error -> {
+                log.warn("Failed to create shared Admin client: {}", error.getMessage());
+                giveBack(entry, true, false);
+            });
+    }
+
+    /**
+     * Find the usable entry for the key, creating it when not present. Must be called
+     * while holding the pool's lock.
+     */
+    private Entry entry(String key, Map<String, Object> acConfig, long expiresAt, long now, List<Entry> retired) {
+        Entry existing = entries.get(key);
+
+        if (existing != null && existing.expiresAt <= now) {
+            entries.remove(key);
+            existing.retired = true;
+            retired.add(existing);
+            existing = null;
+        }
+
+        if (existing == null) {
+            existing = new Entry(key, expiresAt);
+            existing.creation = create(existing, acConfig);
+            entries.put(key, existing);
+            retired.addAll(trim(existing));
+        }
+
+        existing.lastUsed = now;
+        return existing;
+    }
+
+    /**
+     * Close all clients and stop the eviction timer. Clients leased at the time of the
+     * call are closed when their last lease is returned.
+     *
+     * @return future completed once the clients not in use have been closed
+     */
+    @SuppressWarnings("rawtypes") // CompositeFuture#join requires raw type
+    public Future<Void> close() {
+        vertx.cancelTimer(evictionTimer);
+        List<Entry> retired;
+
+        synchronized (this) {
+            retired = new ArrayList<>(entries.values());
+            retired.forEach(entry -> entry.retired = true);
+            entries.clear();
+            shared.clear();
+        }
+
+        List<Future> closed = retired.stream().map(this::closeIfUnused).collect(Collectors.toList());
+        return CompositeFuture.join(closed).mapEmpty();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized Entry pooled(Map<String, Object> acConfig) {
+        return entries.get(hash(acConfig));
+    }
+
+    private Future<Void> create(Entry entry, Map<String, Object> acConfig) {
+        Properties props = new Properties();
+        props.putAll(acConfig);
+
+        return vertx.<Void>executeBlocking(promise -> {
+            entry.admin = AdminClient.create(props);
+            entry.client = KafkaAdminClient.create(vertx, entry.admin);
+            promise.complete();
+        }, false);
+    }
+
+    private void giveBack(Entry entry, boolean retire) {
+        giveBack(entry, retire, true);
+    }
+
+    private void giveBack(Entry entry, boolean retire, boolean borrowed) {
+        Map<String, Object> rebuild = null;
+
+        synchronized (this) {
+            if (borrowed) {
+                entry.borrowers--;
+            }
+            entry.lastUsed = System.currentTimeMillis();
+
+            if (retire && entries.get(entry.key) == entry) {
+                entries.remove(entry.key);
+                entry.retired = true;
+                rebuild = borrowed ? shared.get(entry.key) : null;
+            }
+        }
+
+        closeIfUnused(entry);
+
+        if (rebuild != null) {
+            log.info("Re-creating invalidated shared Admin client");
+            share(rebuild);
+        }
+    }
+
+    /**
+     * Remove least recently used idle entries until the pool is within its maximum size.
+     * Entries currently in use are left in place, allowing the pool to temporarily exceed
+     * the limit under load.
+     */
+    private List<Entry> trim(Entry added) {
+        List<Entry> retired = new ArrayList<>();
+        int excess = entries.size() - maxSize;
+
+        if (excess > 0) {
+            entries.values()
+                .stream()
+                .filter(entry -> entry != added && entry.borrowers == 0 && !shared.containsKey(entry.key))
+                .sorted(Comparator.comparingLong(entry -> entry.lastUsed))
+                .limit(excess)
+                .forEach(retired::add);
+
+            retired.forEach(entry -> {
+                entries.remove(entry.key);
+                entry.retired = true;
+            });
+        }
+
+        return retired;
+    }
+
+    void evict() {
+        final long now = System.currentTimeMillis();
+        List<Entry> retired = new ArrayList<>();
+
+        synchronized (this) {
+            entries.values()
+                .stream()
+                .filter(entry -> entry.expiresAt <= now
+                        || (entry.borrowers == 0 && now - entry.lastUsed >= idleTimeoutMs && !shared.containsKey(entry.key)))
+                .forEach(retired::add);
+
+            retired.forEach(entry -> {
+                entries.remove(entry.key);
+                entry.retired = true;
+            });
+        }
+
+        if (!retired.isEmpty()) {
+            log.debug("Evicting {} expired or idle Admin client(s)", retired.size());
+            retired.forEach(this::closeIfUnused);
+        }
+    }
+
+    /**
+     * Close the entry's client when it has been retired and is no longer leased.
+     *
+     * @return future completed once the client has been closed (successfully or not),
+     *         or immediately when the client is not closed
+     */
+    private Future<Void> closeIfUnused(Entry entry) {
+        synchronized (this) {
+            if (!entry.retired || entry.borrowers > 0 || entry.closed) {
+                return Future.succeededFuture();
+            }
+            entry.closed = true;
+        }
+
+        return entry.creation.transform(created -> {
+            if (created.failed()) {
+                // Nothing to close
+                return Future.succeededFuture();
+            }
+
+            return vertx.<Void>executeBlocking(promise -> {
+                entry.admin.close(CLOSE_TIMEOUT);
+                promise.complete();
+            }, false).recover(error -> {
+                log.warn("Failed to close Admin client: {}", error.getMessage());
+                return Future.succeededFuture();
+            });
+        });
+    }
+
+    /**
+     * Determine whether the error indicates that the Admin client used to make the failed
+     * request should not be re-used, e.g. a failed SASL or TLS handshake with the broker,
+     * or a client whose network thread is no longer accepting calls.
+     *
+     * @param error request failure cause
+     * @return true if the client should be discarded
+     */
+    public static boolean isFatalClientError(Throwable error) {
+        while (error != null) {
+            if (error instanceof AuthenticationException
+                    || (error instanceof KafkaException && String.valueOf(error.getMessage()).contains("AdminClient thread"))) {
+                return true;
+            }
+            error = error.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Obtain the key of the pooled client for a configuration, a digest of the configuration that
+     * does not reveal the credentials it contains.
+     *
+     * @param acConfig Admin client configuration
+     * @return hex encoded SHA-256 digest of the configuration
+     */
+    public static String hash(Map<String, Object> acConfig) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(new TreeMap<>(acConfig).toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class Entry {
+        final String key;
+        final long expiresAt;
+        Future<Void> creation;
+        AdminClient admin;
+        KafkaAdminClient client;
+        int borrowers;
+        long lastUsed;
+        boolean retired;
+        boolean closed;
+
+        Entry(String key, long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.kafka.admin.KafkaAdminClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Export of the committed offsets and lag of consumer groups as newline-delimited JSON.
+ */
+public class ConsumerGroupExport {
+
+    private static final Pattern MATCH_ALL = Pattern.compile(".*");
+
+    private final KafkaAdminConfigRetriever config;
+    private final LogEndOffsetCache offsetCache;
+    private final ConsumerGroupLagHistory lagHistory;
+    private final HttpMetrics httpMetrics;
+
+    public ConsumerGroupExport(KafkaAdminConfigRetriever config, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory, HttpMetrics httpMetrics) {
+        this.config = config;
+        this.offsetCache = offsetCache;
+        this.lagHistory = lagHistory;
+        this.httpMetrics = httpMetrics;
+    }
+
+    /**
+     * Export the committed offset, latest offset and lag of each partition of every group matching the
+     * groupIdPattern as newline-delimited JSON, one line per group partition. Groups are fetched in
+     * batches of {@link KafkaAdminConfigRetriever#getConsumerGroupExportBatchSize()} and the next batch
+     * is only fetched once the lines of the previous batch have been written, so no more than one batch
+     * is held in memory however many groups there are.
+     *
+     * @param output supplies the stream to write to, obtained once the first batch of lines is ready
+     *        to be written (i.e. not obtained when there are no groups, or when the first batch fails)
+     * @return future completed once every line has been written, or failed with the first error
+     */
+    public Future<Void> exportGroupOffsets(KafkaAdminClient ac, Pattern groupIdPattern, Supplier<WriteStream<Buffer>> output, ConsumerGroupTopicIndex.Scope groupIndex) {
+        return listGroupIds(ac, groupIdPattern)
+            .compose(groupIds -> exportBatch(ac, groupIds, 0, output, groupIndex));
+    }
+
+    private Future<Void> exportBatch(KafkaAdminClient ac, List<String> groupIds, int start, Supplier<WriteStream<Buffer>> output, ConsumerGroupTopicIndex.Scope groupIndex) {
+        if (start >= groupIds.size()) {
+            return Future.succeededFuture();
+        }
+
+        final int end = Math.min(groupIds.size(), start + batchSize());
+
+        return fetchLines(ac, groupIds.subList(start, end), groupIndex)
+            .compose(lines -> {
+                WriteStream<Buffer> stream = output.get();
+                // Completes once the batch has been written, i.e. the client is keeping up
+                return stream.write(lines)
+                    .compose(written -> exportBatch(ac, groupIds, end, () -> stream, groupIndex));
+            });
+    }
+
+    /**
+     * The number of groups fetched in each batch of the export.
+     */
+    protected int batchSize() {
+        return Math.max(1, config.getConsumerGroupExportBatchSize());
+    }
+
+    /**
+     * List the IDs of the groups matching the groupIdPattern.
+     */
+    protected Future<List<String>> listGroupIds(KafkaAdminClient ac, Pattern groupIdPattern) {
+        return ac.listConsumerGroups()
+            .map(groups -> groups.stream()
+                 .map(listing -> listing.getGroupId())
+                 .filter(groupId -> groupIdPattern.matcher(groupId).find())
+                 .collect(Collectors.toList()));
+    }
+
+    /**
+     * Fetch the offsets of a batch of groups and format them as lines of the export.
+     */
+    protected Future<Buffer> fetchLines(KafkaAdminClient ac, List<String> groupIds, ConsumerGroupTopicIndex.Scope groupIndex) {
+        List<ConsumerGroupInfo> consumerGroupInfos = new ArrayList<>(groupIds.size());
+
+        return ConsumerGroupOperations.fetchGroupOffsets(ac, groupIds, consumerGroupInfos, MATCH_ALL, -1, config, offsetCache, lagHistory, groupIndex, httpMetrics)
+            .map(lagTable -> exportLines(consumerGroupInfos, lagTable));
+    }
+
+    /**
+     * Format the offsets of each of the groups' partitions as JSON, one line per partition.
+     */
+    static Buffer exportLines(List<ConsumerGroupInfo> consumerGroupInfos, LagTable lagTable) {
+        Buffer lines = Buffer.buffer();
+
+        for (ConsumerGroupInfo info : consumerGroupInfos) {
+            LagTable.Offsets offsets = lagTable.offsets(info, topic -> true);
+            String groupId = info.getDescription().getGroupId();
+            String state = info.getDescription().getState().name();
+
+            for (int i = 0; i < offsets.size(); i++) {
+                lines.appendBuffer(new JsonObject()
+                                   .put("groupId", groupId)
+                                   .put("state", state)
+                                   .put("topic", offsets.topic[i])
+                                   .put("partition", offsets.partition[i])
+                                   .put("offset", offsets.committed[i])
+                                   .put("logEndOffset", offsets.end[i])
+                                   .put("lag", Math.max(0, offsets.lag[i]))
+                                   .toBuffer())
+                     .appendString("\n");
+            }
+        }
+
+        return lines;
+    }
+}
@@ -10,6 +10,7 @@ class ConsumerGroupInfo {
 
     ConsumerGroupDescription description;
     Map<TopicPartition, OffsetAndMetadata> offsets;
+    LagTable.GroupOffsets committed;
 
     ConsumerGroupInfo(ConsumerGroupDescription description, Map<TopicPartition, OffsetAndMetadata> offsets) {
         super();
@@ -21,6 +22,10 @@ class ConsumerGroupInfo {
         return description;
     }
 
+    /**
+     * @return the group's committed offsets as returned by the client, or null once the group
+     *         has been added to a {@link LagTable}, which holds them from then on
+     */
     Map<TopicPartition, OffsetAndMetadata> getOffsets() {
         return offsets;
     }
@@ -0,0 +1,251 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.bf2.admin.kafka.admin.model.Types;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded in-memory history of the lag of each consumer group's partitions, recorded each time
+ * the group's committed offsets and the latest offsets of its partitions are fetched, whether by a
+ * request or by the {@link ConsumerGroupLagSampler}.
+ * <p>
+ * Each partition's samples are held in fixed-size primitive arrays. Samples closer together than
+ * the partition's sample interval replace the most recent sample. When the arrays are full, every
+ * other sample is discarded and the partition's interval doubled, so a partition's history covers
+ * a period that grows the longer it is sampled while its size stays fixed. At most the configured
+ * number of partitions are held; partitions without a sample for <code>size * interval</code>
+ * are removed to make room for new ones. A size below two disables the history.
+ */
+public class ConsumerGroupLagHistory {
+
+    private final int size;
+    private final long intervalMs;
+    private final int maxPartitions;
+    private final Map<String, Map<TopicPartition, Samples>> groups = new HashMap<>();
+    private int partitionCount;
+
+    public ConsumerGroupLagHistory(int size, long intervalMs, int maxPartitions) {
+        this.size = size;
+        this.intervalMs = intervalMs;
+        this.maxPartitions = maxPartitions;
+    }
+
+    public ConsumerGroupLagHistory(KafkaAdminConfigRetriever config) {
+        this(config.getLagHistorySize(), config.getLagHistoryIntervalMs(), config.getLagHistoryMaxPartitions());
+    }
+
+    public boolean isEnabled() {
+        return size >= 2;
+    }
+
+    /**
+     * Record the lag of the groups' partitions for which the latest offset was fetched.
+     *
+     * @param consumerGroupInfos the groups and their committed offsets
+     * @param latestOffsets the latest offsets of (some of) the groups' partitions
+     * @param timestamp the time at which the offsets were fetched
+     */
+    public synchronized void record(List<ConsumerGroupInfo> consumerGroupInfos, Map<TopicPartition, ListOffsetsResultInfo> latestOffsets, long timestamp) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        for (ConsumerGroupInfo info : consumerGroupInfos) {
+            String groupId = info.getDescription().getGroupId();
+
+            for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : info.getOffsets().entrySet()) {
+                ListOffsetsResultInfo latest = latestOffsets.get(entry.getKey());
+
+                if (latest != null && entry.getValue() != null) {
+                    Samples samples = samples(groupId, entry.getKey(), timestamp);
+
+                    if (samples != null) {
+                        samples.add(timestamp, entry.getValue().getOffset(), latest.getOffset());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the history of the group, e.g. when it has been deleted.
+     */
+    public synchronized void remove(String groupId) {
+        Map<TopicPartition, Samples> partitions = groups.remove(groupId);
+
+        if (partitions != null) {
+            partitionCount -= partitions.size();
+        }
+    }
+
+    /**
+     * Obtain the lag history of the group's partitions.
+     *
+     * @param groupId the consumer group ID
+     * @param visiblePartitions the partitions that may be included, i.e. those for which the
+     *        requesting user is able to obtain the group's committed offsets
+     * @return the lag history of the group, without any partitions when none have been recorded
+     */
+    public synchronized Types.ConsumerGroupLagHistory get(String groupId, Set<TopicPartition> visiblePartitions) {
+        Types.ConsumerGroupLagHistory history = new Types.ConsumerGroupLagHistory();
+        List<Types.PartitionLagHistory> partitions = new ArrayList<>();
+        double consumptionRate = 0;
+        double lagRate = 0;
+
+        groups.getOrDefault(groupId, Map.of()).forEach((partition, samples) -> {
+            if (visiblePartitions.contains(partition)) {
+                partitions.add(samples.toPartitionLagHistory(partition));
+            }
+        });
+
+        partitions.sort(Comparator.comparing(Types.PartitionLagHistory::getTopic)
+                        .thenComparingInt(Types.PartitionLagHistory::getPartition));
+
+        for (Types.PartitionLagHistory partition : partitions) {
+            consumptionRate += partition.getConsumptionRate();
+            lagRate += partition.getLagRate();
+        }
+
+        history.setGroupId(groupId);
+        history.setPartitions(partitions);
+        history.setConsumptionRate(consumptionRate);
+        history.setLagRate(lagRate);
+        return history;
+    }
+
+    synchronized int partitionCount() {
+        return partitionCount;
+    }
+
+    private Samples samples(String groupId, TopicPartition partition, long now) {
+        Samples samples = groups.getOrDefault(groupId, Map.of()).get(partition);
+
+        if (samples == null) {
+            if (partitionCount >= maxPartitions) {
+                removeStale(now);
+            }
+            if (partitionCount >= maxPartitions) {
+                return null;
+            }
+            samples = new Samples(size, intervalMs);
+            groups.computeIfAbsent(groupId, id -> new HashMap<>()).put(partition, samples);
+            partitionCount++;
+        }
+
+        return samples;
+    }
+
+    private void removeStale(long now) {
+        final long window = size * Math.max(intervalMs, 1);
+
+        groups.values().forEach(partitions -> {
+            int before = partitions.size();
+            partitions.values().removeIf(samples -> now - samples.times[samples.count - 1] >= window);
+            partitionCount -= before - partitions.size();
+        });
+
+        groups.values().removeIf(Map::isEmpty);
+    }
+
+    static class Samples {
+        final long baseIntervalMs;
+        final long[] times;
+        final long[] offsets;
+        final long[] endOffsets;
+        long intervalMs;
+        int count;
+
+        Samples(int size, long intervalMs) {
+            this.baseIntervalMs = intervalMs;
+            this.intervalMs = intervalMs;
+            times = new long[size];
+            offsets = new long[size];
+            endOffsets = new long[size];
+        }
+
+        void add(long time, long offset, long endOffset) {
+            if (count > 0) {
+                if (time < times[count - 1]) {
+                    // Fetch completed out of order
+                    return;
+                }
+                if (endOffset < endOffsets[count - 1]) {
+                    // Partition truncated or topic re-created, earlier samples no longer apply
+                    count = 0;
+                    intervalMs = baseIntervalMs;
+                }
+            }
+
+            if (count >= 2 && times[count - 1] - times[count - 2] < intervalMs) {
+                // Latest sample too close to the one before, replace it
+                set(count - 1, time, offset, endOffset);
+                return;
+            }
+
+            if (count == times.length) {
+                downsample();
+            }
+
+            set(count++, time, offset, endOffset);
+        }
+
+        /**
+         * Discard every other sample, keeping the latest, and double the sample interval.
+         */
+        void downsample() {
+            int retained = 0;
+
+            for (int i = (count - 1) % 2; i < count; i += 2) {
+                set(retained++, times[i], offsets[i], endOffsets[i]);
+            }
+
+            count = retained;
+            intervalMs *= 2;
+        }
+
+        void set(int index, long time, long offset, long endOffset) {
+            times[index] = time;
+            offsets[index] = offset;
+            endOffsets[index] = endOffset;
+        }
+
+        long lag(int index) {
+            return Math.max(0, endOffsets[index] - offsets[index]);
+        }
+
+        Types.PartitionLagHistory toPartitionLagHistory(TopicPartition partition) {
+            Types.PartitionLagHistory history = new Types.PartitionLagHistory();
+            List<Types.LagSample> samples = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                Types.LagSample sample = new Types.LagSample();
+                sample.setTimestamp(times[i]);
+                sample.setOffset(offsets[i]);
+                sample.setLogEndOffset(endOffsets[i]);
+                sample.setLag(lag(i));
+                samples.add(sample);
+            }
+
+            history.setTopic(partition.getTopic());
+            history.setPartition(partition.getPartition());
+            history.setSamples(samples);
+
+            long elapsedMs = count > 1 ? times[count - 1] - times[0] : 0;
+
+            if (elapsedMs > 0) {
+                history.setConsumptionRate((offsets[count - 1] - offsets[0]) * 1000d / elapsedMs);
+                history.setLagRate((lag(count - 1) - lag(0)) * 1000d / elapsedMs);
+            }
+
+            return history;
+        }
+    }
+}
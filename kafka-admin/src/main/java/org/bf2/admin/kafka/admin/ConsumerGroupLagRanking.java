@@ -0,0 +1,158 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.bf2.admin.kafka.admin.handlers.SortKeys;
+import org.bf2.admin.kafka.admin.model.Types;
+import org.bf2.admin.kafka.admin.model.Types.PagedResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Listing of consumer groups ordered by the total lag of their partitions.
+ */
+class ConsumerGroupLagRanking {
+
+    private static final Pattern MATCH_ALL = Pattern.compile(".*");
+    private static final Types.OrderByInput BLANK_ORDER = new Types.OrderByInput();
+
+    private ConsumerGroupLagRanking() {
+    }
+
+    /**
+     * Select the page of groups ordered by their total lag. The committed and latest offsets of all
+     * the groups are fetched, but only a single primitive total is calculated for each group, and only
+     * the leading groups up to the end of the page are ordered (see {@link SortKeys#rankByTotal}).
+     * The total lag does not depend on the groups' descriptions, so only the groups on the page are
+     * described, and their descriptions built from the offsets already fetched.
+     */
+    static Future<PagedResponse<Types.ConsumerGroupDescription>> describeTotalLagPage(KafkaAdminClient ac, List<String> groupIds, Pattern topicPattern, Types.PageRequest pageRequest, Types.SortDirectionEnum order, boolean summary, boolean timeLag, KafkaAdminConfigRetriever config, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory, ConsumerGroupTopicIndex.Scope groupIndex, HttpMetrics httpMetrics) {
+        return fetchCommittedOffsets(ac, groupIds, config.getConsumerGroupChunkSize(), config.getConsumerGroupConcurrency(), httpMetrics)
+            .compose(consumerGroupInfos -> rankedPage(ac, consumerGroupInfos, topicPattern, pageRequest, order, summary, timeLag, offsetCache, lagHistory, groupIndex, httpMetrics));
+    }
+
+    /**
+     * Fetch the committed offsets of the groups in chunks, as when describing groups, without
+     * describing the groups. Each group's description holds only its group ID until described.
+     *
+     * @return future list of the groups and their committed offsets, in the order of the groupIds
+     */
+    @SuppressWarnings("rawtypes")
+    static Future<List<ConsumerGroupInfo>> fetchCommittedOffsets(KafkaAdminClient ac, List<String> groupIds, int chunkSize, int concurrency, HttpMetrics httpMetrics) {
+        return ConsumerGroupOperations.runWindowed(ConsumerGroupOperations.chunks(groupIds, chunkSize), concurrency,
+            chunk -> httpMetrics.timeKafkaRequest("consumer_group_chunk", () -> CompositeFuture.join(chunk.stream()
+                .map(groupId -> ac.listConsumerGroupOffsets(groupId).map(offsets -> new ConsumerGroupInfo(undescribed(groupId), offsets)))
+                .collect(Collectors.<Future>toList()))
+                .map(CompositeFuture::<ConsumerGroupInfo>list)))
+            .map(chunkInfos -> chunkInfos.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Rank the groups by the total lag of their committed offsets, then describe the groups on the
+     * requested page.
+     */
+    static Future<PagedResponse<Types.ConsumerGroupDescription>> rankedPage(KafkaAdminClient ac, List<ConsumerGroupInfo> consumerGroupInfos, Pattern topicPattern, Types.PageRequest pageRequest, Types.SortDirectionEnum order, boolean summary, boolean timeLag, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory, ConsumerGroupTopicIndex.Scope groupIndex, HttpMetrics httpMetrics) {
+        final EndOffsetHistory history = timeLag ? offsetCache.history() : null;
+        // Indexed by the committed offsets only, members' assignments are checked when the index is used
+        consumerGroupInfos.forEach(groupIndex::update);
+
+        return httpMetrics.timeKafkaRequest("list_offsets", () -> offsetCache.latestOffsets(ac, ConsumerGroupOperations.latestOffsetPartitions(consumerGroupInfos, topicPattern, -1)))
+            .compose(latestOffsets -> {
+                lagHistory.record(consumerGroupInfos, latestOffsets, System.currentTimeMillis());
+                LagTable lagTable = new LagTable(consumerGroupInfos, latestOffsets);
+                Map<String, ConsumerGroupInfo> infos = new HashMap<>();
+                List<String> rankedIds = new ArrayList<>(consumerGroupInfos.size());
+                long[] totals = totalLags(consumerGroupInfos, topicPattern, lagTable);
+
+                for (int i = 0; i < totals.length; i++) {
+                    ConsumerGroupInfo info = consumerGroupInfos.get(i);
+
+                    if (totals[i] >= 0) {
+                        totals[rankedIds.size()] = totals[i];
+                        rankedIds.add(info.getDescription().getGroupId());
+                        infos.put(info.getDescription().getGroupId(), info);
+                    }
+                }
+
+                rankedIds = SortKeys.rankByTotal(rankedIds, totals, pageEnd(pageRequest, rankedIds.size()), order);
+
+                return ConsumerGroupOperations.page(rankedIds, pageRequest)
+                    .compose(idPage -> describeGroups(ac, idPage.getItems(), infos)
+                        .map(nothing -> ConsumerGroupOperations.describedPage(idPage, idPage.getItems()
+                            .stream()
+                            .flatMap(groupId -> ConsumerGroupOperations.describe(infos.get(groupId), topicPattern, -1, BLANK_ORDER, summary, lagTable, history)))));
+            });
+    }
+
+    /**
+     * Describe the groups, replacing the undescribed placeholder of each of the infos.
+     */
+    private static Future<Void> describeGroups(KafkaAdminClient ac, List<String> groupIds, Map<String, ConsumerGroupInfo> infos) {
+        if (groupIds.isEmpty()) {
+            return Future.succeededFuture();
+        }
+
+        return ac.describeConsumerGroups(groupIds)
+            .map(descriptions -> {
+                descriptions.forEach((groupId, description) -> infos.get(groupId).description = description);
+                return null;
+            });
+    }
+
+    /**
+     * Placeholder description of a group not yet described.
+     */
+    static ConsumerGroupDescription undescribed(String groupId) {
+        return new ConsumerGroupDescription(groupId, false, Collections.emptyList(), null, ConsumerGroupState.UNKNOWN, null);
+    }
+
+    /**
+     * Calculate the total lag of each group's partitions matching the topicPattern. Groups without
+     * any matching partitions have a total of <code>-1</code> when a topicPattern is given.
+     *
+     * @return the total lag of each group, indexed as consumerGroupInfos
+     */
+    static long[] totalLags(List<ConsumerGroupInfo> consumerGroupInfos, Pattern topicPattern, LagTable lagTable) {
+        final boolean matchAll = MATCH_ALL.pattern().equals(topicPattern.pattern());
+        long[] totals = new long[consumerGroupInfos.size()];
+
+        for (int i = 0; i < totals.length; i++) {
+            LagTable.Offsets offsets = lagTable.offsets(consumerGroupInfos.get(i), topic -> matchAll || topicPattern.matcher(topic).find());
+            long total = matchAll || offsets.size() > 0 ? 0 : -1;
+
+            for (long lag : offsets.lag) {
+                total += Math.max(0, lag);
+            }
+
+            totals[i] = total;
+        }
+
+        return totals;
+    }
+
+    /**
+     * The number of leading items of a list that are included up to the end of the requested page.
+     */
+    static int pageEnd(Types.PageRequest pageRequest, int total) {
+        long end;
+
+        if (pageRequest.isDeprecatedFormat()) {
+            end = pageRequest.getLimit() == 0 ? total : (long) pageRequest.getOffset() + pageRequest.getLimit();
+        } else {
+            end = (long) pageRequest.getPage() * pageRequest.getSize();
+        }
+
+        return (int) Math.min(end, total);
+    }
+}
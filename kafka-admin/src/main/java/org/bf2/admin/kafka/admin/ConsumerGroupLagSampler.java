@@ -0,0 +1,213 @@
+package org.bf2.admin.kafka.admin;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.kafka.admin.ConsumerGroupListing;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bf2.admin.kafka.admin.model.Types;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Verticle that periodically samples the lag of the consumer groups selected by
+ * {@link KafkaAdminConfigRetriever#getLagSamplerGroupFilter()} and publishes it as the
+ * <code>kafka_consumergroup_lag{group,topic,partition}</code> gauge in the {@link HttpMetrics}
+ * registry. A single sampler gives dashboards consistent sample times without each of them
+ * polling the consumer group REST endpoints.
+ * <p>
+ * At most {@link KafkaAdminConfigRetriever#getLagSamplerMaxSeries()} series are published;
+ * partitions beyond the limit are skipped until existing series are removed.
+ * <p>
+ * The sampler shares the server's {@link LogEndOffsetCache}, so its samples also feed the
+ * {@link EndOffsetHistory} used to estimate the time lag of consumer groups, and records its samples
+ * to the {@link ConsumerGroupLagHistory}.
+ */
+public class ConsumerGroupLagSampler extends AbstractVerticle {
+
+    private static final Logger log = LogManager.getLogger(ConsumerGroupLagSampler.class);
+    private static final Pattern MATCH_ALL = Pattern.compile(".*");
+
+    static final String LAG_GAUGE = "kafka_consumergroup_lag";
+
+    private final KafkaAdminConfigRetriever config;
+    private final AdminClientPool clientPool;
+    private final HttpMetrics httpMetrics;
+    private final LogEndOffsetCache offsetCache;
+    private final ConsumerGroupLagHistory lagHistory;
+    private final ConsumerGroupTopicIndex.Scope groupIndex = new ConsumerGroupTopicIndex(0).scope("");
+
+    private Map<String, Object> acConfig;
+    private Pattern groupPattern;
+    private LagGauges gauges;
+    private long timerId = -1;
+    private boolean sampling;
+
+    public ConsumerGroupLagSampler(KafkaAdminConfigRetriever config, AdminClientPool clientPool, HttpMetrics httpMetrics, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory) {
+        this.config = config;
+        this.clientPool = clientPool;
+        this.httpMetrics = httpMetrics;
+        this.offsetCache = offsetCache;
+        this.lagHistory = lagHistory;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+        acConfig = config.getLagSamplerAcConfig();
+
+        if (acConfig == null) {
+            startPromise.fail(String.format("Environment variable `%s` must be provided to sample consumer group lag when authentication is enabled",
+                    KafkaAdminConfigRetriever.LAG_SAMPLER_SASL_JAAS_CONFIG));
+            return;
+        }
+
+        final long interval = config.getLagSamplerIntervalMs();
+        groupPattern = Pattern.compile(config.getLagSamplerGroupFilter());
+        gauges = new LagGauges(httpMetrics.getRegistry(), config.getLagSamplerMaxSeries());
+        timerId = vertx.setPeriodic(interval, id -> sample());
+
+        log.info("Sampling consumer group lag every {}ms, groups matching `{}`", interval, groupPattern.pattern());
+        startPromise.complete();
+    }
+
+    @Override
+    public void stop() {
+        if (timerId >= 0) {
+            vertx.cancelTimer(timerId);
+        }
+        if (gauges != null) {
+            gauges.clear();
+        }
+    }
+
+    void sample() {
+        if (sampling) {
+            log.debug("Previous consumer group lag sample still in progress, skipping");
+            return;
+        }
+
+        sampling = true;
+
+        clientPool.acquire(acConfig, AdminClientPool.NO_EXPIRY)
+            .compose(lease -> httpMetrics.timeKafkaRequest("lag_sample", () -> sample(lease.client()))
+                     .onComplete(result -> {
+                         // Discard a client which can not recover, it would fail every later sample
+                         if (result.failed() && AdminClientPool.isFatalClientError(result.cause())) {
+                             lease.invalidate();
+                         } else {
+                             lease.release();
+                         }
+                     }))
+            .onSuccess(groups -> {
+                int dropped = gauges.update(groups);
+
+                if (dropped > 0) {
+                    log.warn("Consumer group lag series limit ({}) reached, {} partitions not published", gauges.maxSeries, dropped);
+                }
+            })
+            .onFailure(error -> log.warn("Failed to sample consumer group lag: {}", error.getMessage()))
+            .onComplete(result -> sampling = false);
+    }
+
+    Future<List<Types.ConsumerGroupDescription>> sample(KafkaAdminClient ac) {
+        return ac.listConsumerGroups()
+            .map(groups -> groups.stream()
+                 .map(ConsumerGroupListing::getGroupId)
+                 .filter(groupId -> groupPattern.matcher(groupId).find())
+                 .collect(Collectors.toList()))
+            .compose(groupIds -> ConsumerGroupOperations.fetchDescriptions(ac, groupIds, MATCH_ALL, -1, new Types.OrderByInput(), false, false, config, offsetCache, lagHistory, groupIndex, httpMetrics))
+            .map(groups -> groups.collect(Collectors.toList()));
+    }
+
+    /**
+     * The published lag gauges, one per group, topic and partition. Gauges for partitions
+     * no longer present in a sample are removed from the registry.
+     */
+    static class LagGauges {
+        private final MeterRegistry registry;
+        private final int maxSeries;
+        private final Map<Tags, Series> series = new HashMap<>();
+
+        LagGauges(MeterRegistry registry, int maxSeries) {
+            this.registry = registry;
+            this.maxSeries = maxSeries;
+        }
+
+        /**
+         * Publish the lag of each partition of the groups.
+         *
+         * @param groups the sampled groups
+         * @return the number of partitions not published due to the series limit
+         */
+        synchronized int update(List<Types.ConsumerGroupDescription> groups) {
+            Map<Tags, Long> sampled = new HashMap<>();
+
+            for (Types.ConsumerGroupDescription group : groups) {
+                for (Types.Consumer consumer : group.getConsumers()) {
+                    if (consumer.getTopic() != null) {
+                        Tags tags = Tags.of("group", group.getGroupId(),
+                                            "topic", consumer.getTopic(),
+                                            "partition", String.valueOf(consumer.getPartition()));
+                        sampled.put(tags, Math.max(0, consumer.getLag()));
+                    }
+                }
+            }
+
+            series.entrySet().removeIf(entry -> {
+                if (sampled.containsKey(entry.getKey())) {
+                    return false;
+                }
+                registry.remove(entry.getValue().gauge);
+                return true;
+            });
+
+            int dropped = 0;
+
+            for (Map.Entry<Tags, Long> entry : sampled.entrySet()) {
+                Series existing = series.get(entry.getKey());
+
+                if (existing != null) {
+                    existing.lag.set(entry.getValue());
+                } else if (series.size() < maxSeries) {
+                    series.put(entry.getKey(), new Series(registry, entry.getKey(), entry.getValue()));
+                } else {
+                    dropped++;
+                }
+            }
+
+            return dropped;
+        }
+
+        synchronized void clear() {
+            series.values().forEach(s -> registry.remove(s.gauge));
+            series.clear();
+        }
+
+        synchronized int size() {
+            return series.size();
+        }
+    }
+
+    static class Series {
+        final AtomicLong lag;
+        final Gauge gauge;
+
+        Series(MeterRegistry registry, Tags tags, long lag) {
+            this.lag = new AtomicLong(lag);
+            this.gauge = Gauge.builder(LAG_GAUGE, this.lag, AtomicLong::doubleValue)
+                .description("Consumer group lag (latest offset less committed offset) of a partition")
+                .tags(tags)
+                .register(registry);
+        }
+    }
+}
@@ -4,19 +4,22 @@ import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.kafka.admin.ConsumerGroupDescription;
-import io.vertx.kafka.admin.ConsumerGroupListing;
 import io.vertx.kafka.admin.KafkaAdminClient;
 import io.vertx.kafka.admin.ListOffsetsResultInfo;
 import io.vertx.kafka.admin.MemberDescription;
 import io.vertx.kafka.admin.OffsetSpec;
 import io.vertx.kafka.client.common.TopicPartition;
 import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListConsumerGroupsOptions;
+import org.apache.kafka.common.ConsumerGroupState;
 import org.apache.kafka.common.errors.GroupIdNotFoundException;
 import org.apache.kafka.common.errors.InvalidRequestException;
 import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.bf2.admin.kafka.admin.handlers.CommonHandler;
+import org.bf2.admin.kafka.admin.handlers.SortKeys;
 import org.bf2.admin.kafka.admin.model.Types;
 import org.bf2.admin.kafka.admin.model.Types.PagedResponse;
 
@@ -34,6 +37,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.function.ToLongFunction;
 import java.util.regex.Pattern;
@@ -48,44 +53,42 @@ public class ConsumerGroupOperations {
     private static final Pattern MATCH_ALL = Pattern.compile(".*");
     private static final Types.OrderByInput BLANK_ORDER = new Types.OrderByInput();
 
-    public static void getGroupList(KafkaAdminClient ac, Promise<PagedResponse<Types.ConsumerGroupDescription>> prom, Pattern topicPattern, Pattern groupIdPattern, Types.PageRequest pageRequest, Types.OrderByInput orderByInput) {
-        // Obtain list of all consumer groups
-        ac.listConsumerGroups()
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public static void getGroupList(KafkaAdminClient ac, Admin admin, Promise<PagedResponse<Types.ConsumerGroupDescription>> prom, Pattern topicPattern, Pattern groupIdPattern, Set<ConsumerGroupState> states, Types.PageRequest pageRequest, Types.OrderByInput orderByInput, boolean summary, boolean timeLag, KafkaAdminConfigRetriever config, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory, ConsumerGroupTopicIndex.Scope groupIndex, HttpMetrics httpMetrics) {
+        // Obtain list of all consumer groups, in any of the states when given (filtered by the broker)
+        TopicOperations.toFuture(admin.listConsumerGroups(new ListConsumerGroupsOptions().inStates(states)).all())
             .map(groups -> groups.stream()
-                 .map(ConsumerGroupListing::getGroupId)
+                 .map(ConsumerGroupListing::groupId)
                  // Include only those group matching query parameter (or all if not specified)
                  .filter(groupId -> groupIdPattern.matcher(groupId).find())
                  .collect(Collectors.toList()))
-            // Obtain description for all selected consumer groups
-            .compose(groupDescriptions -> fetchDescriptions(ac, groupDescriptions, topicPattern, -1, BLANK_ORDER))
-            .map(groupDescriptions -> groupDescriptions
-                 .sorted(Types.SortDirectionEnum.DESC.equals(orderByInput.getOrder()) ?
-                     new CommonHandler.ConsumerGroupComparator(orderByInput.getField()).reversed() :
-                         new CommonHandler.ConsumerGroupComparator(orderByInput.getField()))
-                 .collect(Collectors.<Types.ConsumerGroupDescription>toList()))
-            .compose(list -> {
-                if (pageRequest.isDeprecatedFormat()) {
-                    if (pageRequest.getOffset() > list.size()) {
-                        return Future.failedFuture(new InvalidRequestException("Offset (" + pageRequest.getOffset() + ") cannot be greater than consumer group list size (" + list.size() + ")"));
-                    }
-
-                    int tmpLimit = pageRequest.getLimit();
-                    if (tmpLimit == 0) {
-                        tmpLimit = list.size();
-                    }
-
-                    var response = new PagedResponse<Types.ConsumerGroupDescription>();
-                    response.setLimit(pageRequest.getLimit());
-                    response.setOffset(pageRequest.getOffset());
+            .compose(groupIds -> {
+                if ("name".equals(orderByInput.getField()) && MATCH_ALL.pattern().equals(topicPattern.pattern())) {
+                    /*
+                     * Every listed group is present in the results when not filtering by topic, so the
+                     * page may be selected using the group IDs alone, describing only the groups on the page.
+                     */
+                    SortKeys.sortNames(groupIds, orderByInput.getOrder());
+                    return page(groupIds, pageRequest).compose(response -> describePage(ac, response, summary, timeLag, config, offsetCache, lagHistory, groupIndex, httpMetrics));
+                }
 
-                    var croppedList = list.subList(pageRequest.getOffset(), Math.min(pageRequest.getOffset() + tmpLimit, list.size()));
-                    response.setCount(croppedList.size());
-                    response.setItems(croppedList);
+                // Skip groups known not to consume any of the topics
+                Future<List<String>> candidateIds = MATCH_ALL.pattern().equals(topicPattern.pattern())
+                        ? Future.succeededFuture(groupIds)
+                        : groupIndex.candidates(ac, groupIds, topicPattern);
 
-                    return Future.succeededFuture(response);
+                if ("totalLag".equals(orderByInput.getField())) {
+                    return candidateIds.compose(ids -> ConsumerGroupLagRanking.describeTotalLagPage(ac, ids, topicPattern, pageRequest, orderByInput.getOrder(), summary, timeLag, config, offsetCache, lagHistory, groupIndex, httpMetrics));
                 }
 
-                return PagedResponse.forPage(pageRequest, list);
+                // Obtain description for all selected consumer groups
+                return candidateIds.compose(ids -> fetchDescriptions(ac, ids, topicPattern, -1, BLANK_ORDER, summary, timeLag, config, offsetCache, lagHistory, groupIndex, httpMetrics))
+                    .map(groupDescriptions -> {
+                        List<Types.ConsumerGroupDescription> list = groupDescriptions.collect(Collectors.toList());
+                        SortKeys.sortConsumerGroups(list, orderByInput.getField(), orderByInput.getOrder());
+                        return list;
+                    })
+                    .compose(list -> page(list, pageRequest));
             })
             .onComplete(finalRes -> {
                 if (finalRes.failed()) {
@@ -93,10 +96,64 @@ public class ConsumerGroupOperations {
                 } else {
                     prom.complete(finalRes.result());
                 }
-                ac.close();
             });
     }
 
+    /**
+     * Describe the groups in the page of group IDs, keeping the order of the IDs.
+     */
+    static Future<PagedResponse<Types.ConsumerGroupDescription>> describePage(KafkaAdminClient ac, PagedResponse<String> idPage, boolean summary, boolean timeLag, KafkaAdminConfigRetriever config, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory, ConsumerGroupTopicIndex.Scope groupIndex, HttpMetrics httpMetrics) {
+        return fetchDescriptions(ac, idPage.getItems(), MATCH_ALL, -1, BLANK_ORDER, summary, timeLag, config, offsetCache, lagHistory, groupIndex, httpMetrics)
+            .map(groupDescriptions -> describedPage(idPage, groupDescriptions));
+    }
+
+    /**
+     * Build the page of group descriptions in the order of the page of group IDs.
+     */
+    static PagedResponse<Types.ConsumerGroupDescription> describedPage(PagedResponse<String> idPage, Stream<Types.ConsumerGroupDescription> groupDescriptions) {
+        Map<String, Types.ConsumerGroupDescription> described = groupDescriptions
+                .collect(Collectors.toMap(Types.ConsumerGroupDescription::getGroupId, Function.identity(), (first, second) -> first));
+
+        var response = new PagedResponse<Types.ConsumerGroupDescription>();
+        response.setItems(idPage.getItems()
+                .stream()
+                .map(described::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        response.setSize(idPage.getSize());
+        response.setPage(idPage.getPage());
+        response.setTotal(idPage.getTotal());
+        response.setOffset(idPage.getOffset());
+        response.setLimit(idPage.getLimit());
+        response.setCount(idPage.getCount());
+        return response;
+    }
+
+    static <T> Future<PagedResponse<T>> page(List<T> list, Types.PageRequest pageRequest) {
+        if (pageRequest.isDeprecatedFormat()) {
+            if (pageRequest.getOffset() > list.size()) {
+                return Future.failedFuture(new InvalidRequestException("Offset (" + pageRequest.getOffset() + ") cannot be greater than consumer group list size (" + list.size() + ")"));
+            }
+
+            int tmpLimit = pageRequest.getLimit();
+            if (tmpLimit == 0) {
+                tmpLimit = list.size();
+            }
+
+            var response = new PagedResponse<T>();
+            response.setLimit(pageRequest.getLimit());
+            response.setOffset(pageRequest.getOffset());
+
+            var croppedList = list.subList(pageRequest.getOffset(), Math.min(pageRequest.getOffset() + tmpLimit, list.size()));
+            response.setCount(croppedList.size());
+            response.setItems(croppedList);
+
+            return Future.succeededFuture(response);
+        }
+
+        return PagedResponse.forPage(pageRequest, list);
+    }
+
     public static void deleteGroup(KafkaAdminClient ac, List<String> groupsToDelete, Promise<List<String>> prom) {
         ac.deleteConsumerGroups(groupsToDelete, res -> {
             if (res.failed()) {
@@ -104,7 +161,6 @@ public class ConsumerGroupOperations {
             } else {
                 prom.complete(groupsToDelete);
             }
-            ac.close();
         });
     }
 
@@ -274,7 +330,6 @@ public class ConsumerGroupOperations {
             } else {
                 prom.fail(res.cause());
             }
-            ac.close();
         });
     }
 
@@ -382,8 +437,8 @@ public class ConsumerGroupOperations {
         }
     }
 
-    public static void describeGroup(KafkaAdminClient ac, Promise<Types.ConsumerGroupDescription> prom, String groupToDescribe, Types.OrderByInput orderBy, int partitionFilter) {
-        fetchDescriptions(ac, List.of(groupToDescribe), MATCH_ALL, partitionFilter, orderBy)
+    public static void describeGroup(KafkaAdminClient ac, Promise<Types.ConsumerGroupDescription> prom, String groupToDescribe, Types.OrderByInput orderBy, int partitionFilter, boolean timeLag, KafkaAdminConfigRetriever config, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory, ConsumerGroupTopicIndex.Scope groupIndex, HttpMetrics httpMetrics) {
+        fetchDescriptions(ac, List.of(groupToDescribe), MATCH_ALL, partitionFilter, orderBy, false, timeLag, config, offsetCache, lagHistory, groupIndex, httpMetrics)
             .map(groupDescriptions -> groupDescriptions.findFirst().orElse(null))
             .onComplete(res -> {
                 if (res.failed()) {
@@ -397,7 +452,31 @@ public class ConsumerGroupOperations {
                         prom.complete(groupDescription);
                     }
                 }
-                ac.close();
+            });
+    }
+
+    /**
+     * Obtain the recorded lag history of the group. Only partitions for which the group's committed
+     * offsets may currently be listed by the client are included.
+     */
+    public static void getGroupLagHistory(KafkaAdminClient ac, Promise<Types.ConsumerGroupLagHistory> prom, String groupId, ConsumerGroupLagHistory lagHistory) {
+        ac.describeConsumerGroups(List.of(groupId))
+            .compose(descriptions -> {
+                ConsumerGroupDescription description = descriptions.get(groupId);
+
+                if (description == null || "dead".equalsIgnoreCase(description.getState().name())) {
+                    return Future.failedFuture(new GroupIdNotFoundException("Group " + groupId + " does not exist"));
+                }
+
+                return ac.listConsumerGroupOffsets(groupId);
+            })
+            .map(offsets -> lagHistory.get(groupId, offsets.keySet()))
+            .onComplete(res -> {
+                if (res.failed()) {
+                    prom.fail(res.cause());
+                } else {
+                    prom.complete(res.result());
+                }
             });
     }
 
@@ -405,64 +484,46 @@ public class ConsumerGroupOperations {
             Types.OrderByInput orderBy,
             int partitionFilter,
             Collection<ConsumerGroupDescription> groupDescriptions,
-            Map<TopicPartition, OffsetAndMetadata> groupOffsets,
-            Map<TopicPartition, ListOffsetsResultInfo> topicOffsets) {
-
-        List<TopicPartition> assignedTopicPartitions = groupOffsets.entrySet()
-                .stream()
-                .map(Map.Entry::getKey)
-                .filter(topicPartition -> pattern.matcher(topicPartition.getTopic()).find())
-                .collect(Collectors.toList());
+            LagTable.Offsets offsets,
+            EndOffsetHistory history) {
 
         return groupDescriptions.stream().map(group -> {
             Types.ConsumerGroupDescription grp = new Types.ConsumerGroupDescription();
-            Set<Types.Consumer> members = new HashSet<>();
+            List<Types.Consumer> members = new ArrayList<>();
 
             if (group.getMembers().isEmpty()) {
-                assignedTopicPartitions.forEach(pa -> {
-                    Types.Consumer member = getConsumer(groupOffsets, topicOffsets, group, pa);
+                for (int i = 0; i < offsets.size(); i++) {
+                    Types.Consumer member = getConsumer(offsets, i, group);
                     members.add(member);
-                });
+                }
             } else {
-                assignedTopicPartitions.forEach(pa -> {
-                    group.getMembers().stream().forEach(mem -> {
-                        if (!mem.getAssignment().getTopicPartitions().isEmpty()) {
-                            Types.Consumer member = getConsumer(groupOffsets, topicOffsets, group, pa);
-                            if (memberMatchesPartitionFilter(member, partitionFilter)) {
-                                if (mem.getAssignment().getTopicPartitions().contains(pa)) {
-                                    member.setMemberId(mem.getConsumerId());
-                                } else {
-                                    // unassigned partition
-                                    member.setMemberId(null);
-                                }
-
-                                if (members.contains(member)) {
-                                    // some member does not consume the partition, so it was flagged as unconsumed
-                                    // another member does consume the partition, so we override the member in result
-                                    if (member.getMemberId() != null) {
-                                        members.remove(member);
-                                        members.add(member);
-                                    }
-                                } else {
-                                    members.add(member);
-                                }
-                            }
-                        } else {
-                            // more consumers than topic partitions - consumer is in the group but is not consuming
-                            Types.Consumer member = new Types.Consumer();
-                            member.setMemberId(mem.getConsumerId());
-                            member.setTopic(null);
-                            member.setPartition(-1);
-                            member.setGroupId(group.getGroupId());
-                            member.setLogEndOffset(0);
-                            member.setLag(0);
-                            member.setOffset(0);
-                            if (memberMatchesPartitionFilter(member, partitionFilter)) {
-                                members.add(member);
-                            }
+                MemberIndex index = new MemberIndex(group.getMembers());
+
+                if (index.hasAssignments()) {
+                    for (int i = 0; i < offsets.size(); i++) {
+                        Types.Consumer member = getConsumer(offsets, i, group);
+                        if (memberMatchesPartitionFilter(member, partitionFilter)) {
+                            // null when the partition is not assigned to any member
+                            member.setMemberId(index.memberId(new TopicPartition(offsets.topic[i], offsets.partition[i])));
+                            members.add(member);
                         }
-                    });
-                });
+                    }
+                }
+
+                if (index.idleMemberId() != null && offsets.size() > 0) {
+                    // more consumers than topic partitions - consumer is in the group but is not consuming
+                    Types.Consumer member = new Types.Consumer();
+                    member.setMemberId(index.idleMemberId());
+                    member.setTopic(null);
+                    member.setPartition(-1);
+                    member.setGroupId(group.getGroupId());
+                    member.setLogEndOffset(0);
+                    member.setLag(0);
+                    member.setOffset(0);
+                    if (memberMatchesPartitionFilter(member, partitionFilter)) {
+                        members.add(member);
+                    }
+                }
             }
 
             if (!pattern.pattern().equals(MATCH_ALL.pattern()) && members.isEmpty()) {
@@ -470,6 +531,11 @@ public class ConsumerGroupOperations {
             }
             grp.setGroupId(group.getGroupId());
             grp.setState(group.getState().name());
+
+            if (history != null) {
+                setTimeLag(grp, members, history);
+            }
+
             List<Types.Consumer> sortedList;
 
             ToLongFunction<Types.Consumer> fun;
@@ -497,6 +563,138 @@ public class ConsumerGroupOperations {
 
     }
 
+    /**
+     * Estimate the time lag of each member's partition and the maximum of the group.
+     */
+    private static void setTimeLag(Types.ConsumerGroupDescription grp, List<Types.Consumer> members, EndOffsetHistory history) {
+        final long now = System.currentTimeMillis();
+        Long maxTimeLag = null;
+
+        for (Types.Consumer member : members) {
+            if (member.getTopic() == null) {
+                continue;
+            }
+
+            long timeLag = history.timeLag(new TopicPartition(member.getTopic(), member.getPartition()), member.getOffset(), now);
+
+            if (timeLag != EndOffsetHistory.UNKNOWN) {
+                member.setTimeLagMs(timeLag);
+                maxTimeLag = maxTimeLag != null ? Math.max(maxTimeLag, timeLag) : timeLag;
+            }
+        }
+
+        grp.setTimeLagMs(maxTimeLag);
+    }
+
+    /**
+     * Summarize a group's members and lag without building an entry per partition. Only the
+     * committed offsets of partitions matching the pattern are counted. The maximum time lag
+     * of the partitions is estimated when a history of end offsets is given.
+     *
+     * @return the summarized group, or null when filtering by topic and no partitions match
+     */
+    static Types.ConsumerGroupDescription getConsumerGroupSummary(Pattern pattern,
+            ConsumerGroupDescription group,
+            LagTable.Offsets offsets,
+            EndOffsetHistory history) {
+
+        final boolean matchAll = MATCH_ALL.pattern().equals(pattern.pattern());
+        final long now = System.currentTimeMillis();
+        long totalLag = 0;
+        long maxLag = 0;
+        long maxTimeLag = EndOffsetHistory.UNKNOWN;
+
+        for (int i = 0; i < offsets.size(); i++) {
+            // Committed offset ahead of the cached end offset counts as no lag
+            long lag = Math.max(0, offsets.lag[i]);
+            totalLag += lag;
+            maxLag = Math.max(maxLag, lag);
+
+            if (history != null) {
+                TopicPartition partition = new TopicPartition(offsets.topic[i], offsets.partition[i]);
+                maxTimeLag = Math.max(maxTimeLag, history.timeLag(partition, offsets.committed[i], now));
+            }
+        }
+
+        if (!matchAll && offsets.size() == 0) {
+            return null;
+        }
+
+        Types.ConsumerGroupSummary summary = new Types.ConsumerGroupSummary();
+        summary.setMemberCount(group.getMembers().size());
+        summary.setPartitionCount(offsets.size());
+        summary.setTotalLag(totalLag);
+        summary.setMaxLag(maxLag);
+
+        Types.ConsumerGroupDescription grp = new Types.ConsumerGroupDescription();
+        grp.setGroupId(group.getGroupId());
+        grp.setState(group.getState().name());
+        grp.setConsumers(Collections.emptyList());
+        grp.setSummary(summary);
+
+        if (maxTimeLag != EndOffsetHistory.UNKNOWN) {
+            grp.setTimeLagMs(maxTimeLag);
+        }
+
+        return grp;
+    }
+
+    /**
+     * Index of the partitions assigned to the members of a group, built once per group
+     * rather than searching each member's assignment for every partition.
+     */
+    static class MemberIndex {
+        private final Map<TopicPartition, String> assignments = new HashMap<>();
+        private final boolean hasAssignments;
+        private final String idleMemberId;
+
+        MemberIndex(List<MemberDescription> members) {
+            boolean assigned = false;
+            String idle = null;
+
+            for (MemberDescription member : members) {
+                Set<TopicPartition> partitions = member.getAssignment().getTopicPartitions();
+
+                if (partitions.isEmpty()) {
+                    if (idle == null) {
+                        idle = member.getConsumerId();
+                    }
+                } else {
+                    assigned = true;
+                    // Where several members report the same partition, the last one is used
+                    partitions.forEach(partition -> assignments.put(partition, member.getConsumerId()));
+                }
+            }
+
+            this.hasAssignments = assigned;
+            this.idleMemberId = idle;
+        }
+
+        /**
+         * @return true if at least one member has been assigned partitions
+         */
+        boolean hasAssignments() {
+            return hasAssignments;
+        }
+
+        /**
+         * @return the ID of the member assigned the partition or null if not assigned
+         */
+        String memberId(TopicPartition partition) {
+            return assignments.get(partition);
+        }
+
+        /**
+         * Members without any assigned partitions are reported as a single entry,
+         * identified by the first such member.
+         *
+         * @return the ID of the first member without assigned partitions, or null
+         */
+        String idleMemberId() {
+            return idleMemberId;
+        }
+    }
+
     private static boolean memberMatchesPartitionFilter(Types.Consumer member, int partitionFilter) {
         if (partitionFilter < 0) {
             // filter deactivated
@@ -506,21 +704,17 @@ public class ConsumerGroupOperations {
         }
     }
 
-    private static Types.Consumer getConsumer(Map<TopicPartition, OffsetAndMetadata> groupOffsets,
-            Map<TopicPartition, ListOffsetsResultInfo> topicOffsets,
-            ConsumerGroupDescription group,
-            TopicPartition pa) {
+    private static Types.Consumer getConsumer(LagTable.Offsets offsets,
+            int index,
+            ConsumerGroupDescription group) {
 
         Types.Consumer member = new Types.Consumer();
-        member.setTopic(pa.getTopic());
-        member.setPartition(pa.getPartition());
+        member.setTopic(offsets.topic[index]);
+        member.setPartition(offsets.partition[index]);
         member.setGroupId(group.getGroupId());
-        long offset = groupOffsets.get(pa) == null ? 0 : groupOffsets.get(pa).getOffset();
-        long logEndOffset = topicOffsets.get(pa) == null ? 0 : topicOffsets.get(pa).getOffset();
-        long lag = logEndOffset - offset;
-        member.setLag(lag);
-        member.setLogEndOffset(logEndOffset);
-        member.setOffset(offset);
+        member.setLag(offsets.lag[index]);
+        member.setLogEndOffset(offsets.end[index]);
+        member.setOffset(offsets.committed[index]);
         return member;
     }
 
@@ -533,28 +727,121 @@ public class ConsumerGroupOperations {
      * <li>Current consumer group offsets (using {@link KafkaAdminClient#listConsumerGroupOffsets(String)})
      * </ul>
      *
-     * The unique set of {@link TopicPartition}s for the listed consumer groups will then be used to
-     * obtain the current topic offsets using {@link KafkaAdminClient#listOffsets(Map)}).
+     * The groups are fetched in chunks of {@link KafkaAdminConfigRetriever#getConsumerGroupChunkSize()}
+     * groups, with at most {@link KafkaAdminConfigRetriever#getConsumerGroupConcurrency()} chunks
+     * in progress at once, limiting the number of concurrent requests sent to the group coordinators.
+     * The offsets of each group in a chunk are requested concurrently.
+     *
+     * The unique set of {@link TopicPartition}s for the listed consumer groups that match the
+     * topicPattern and partitionFilter will then be used to obtain the current topic offsets using {@link KafkaAdminClient#listOffsets(Map)}), via the
+     * shared {@link LogEndOffsetCache}. The topics consumed by each group are recorded in the
+     * {@link ConsumerGroupTopicIndex}.
      *
      * Results will be filtered according to the provided topicPattern and partitionFilter. Sorting
-     * of each consumer group's members will be performed based on the provided memberOrder.
+     * of each consumer group's members will be performed based on the provided memberOrder. When
+     * <code>summary</code> is set, each group is reduced to a {@link Types.ConsumerGroupSummary}
+     * and the list of consumers is left empty.
      *
      * @param ac Kafka client
      * @param groupIds the groups to describe
      * @param topicPattern regular expression pattern to limit results to matching topics
      * @param partitionFilter partition number to limit results to a specific partition
      * @param memberOrder consumer group member sorting
+     * @param summary summarize each group rather than listing its consumers
+     * @param timeLag estimate the time lag of each partition using the end offset history of the offsetCache
+     * @param config configuration for chunking
+     * @param offsetCache cache of the latest partition offsets
+     * @param lagHistory history to which the lag of each group's partitions is recorded
+     * @param groupIndex index of the topics consumed by each group
+     * @param httpMetrics metrics used to record the latency of each chunk
      * @return future stream of {@link Types.ConsumerGroupDescription}
      */
-    @SuppressWarnings("rawtypes")
     static Future<Stream<Types.ConsumerGroupDescription>> fetchDescriptions(KafkaAdminClient ac,
                                                                      List<String> groupIds,
                                                                      Pattern topicPattern,
                                                                      int partitionFilter,
-                                                                     Types.OrderByInput memberOrder) {
+                                                                     Types.OrderByInput memberOrder,
+                                                                     boolean summary,
+                                                                     boolean timeLag,
+                                                                     KafkaAdminConfigRetriever config,
+                                                                     LogEndOffsetCache offsetCache,
+                                                                     ConsumerGroupLagHistory lagHistory,
+                                                                     ConsumerGroupTopicIndex.Scope groupIndex,
+                                                                     HttpMetrics httpMetrics) {
 
         List<ConsumerGroupInfo> consumerGroupInfos = new ArrayList<>(groupIds.size());
+        final EndOffsetHistory history = timeLag ? offsetCache.history() : null;
+
+        return fetchGroupOffsets(ac, groupIds, consumerGroupInfos, topicPattern, partitionFilter, config, offsetCache, lagHistory, groupIndex, httpMetrics)
+            .map(lagTable -> consumerGroupInfos.stream()
+                 .flatMap(e -> describe(e, topicPattern, partitionFilter, memberOrder, summary, lagTable, history)));
+    }
+
+    /**
+     * Build the description (or summary) of the group from its committed offsets and the latest offsets
+     * in the lagTable. The stream is empty when the group has no partitions matching a topicPattern.
+     */
+    static Stream<Types.ConsumerGroupDescription> describe(ConsumerGroupInfo info, Pattern topicPattern, int partitionFilter, Types.OrderByInput memberOrder, boolean summary, LagTable lagTable, EndOffsetHistory history) {
+        LagTable.Offsets offsets = lagTable.offsets(info, topic -> topicPattern.matcher(topic).find());
+
+        return (summary
+                ? Stream.of(getConsumerGroupSummary(topicPattern, info.getDescription(), offsets, history))
+                : getConsumerGroupsDescription(topicPattern, memberOrder, partitionFilter, List.of(info.getDescription()), offsets, history).stream())
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Describe the groups and fetch their committed offsets in chunks, adding the results to
+     * <code>consumerGroupInfos</code>, then fetch the latest offsets of the groups' partitions
+     * matching the topicPattern and partitionFilter in a single request.
+     *
+     * @return future table of the latest offsets, completed once consumerGroupInfos is populated
+     * @see #fetchDescriptions
+     */
+    static Future<LagTable> fetchGroupOffsets(KafkaAdminClient ac,
+                                              List<String> groupIds,
+                                              List<ConsumerGroupInfo> consumerGroupInfos,
+                                              Pattern topicPattern,
+                                              int partitionFilter,
+                                              KafkaAdminConfigRetriever config,
+                                              LogEndOffsetCache offsetCache,
+                                              ConsumerGroupLagHistory lagHistory,
+                                              ConsumerGroupTopicIndex.Scope groupIndex,
+                                              HttpMetrics httpMetrics) {
+
+        return runWindowed(chunks(groupIds, config.getConsumerGroupChunkSize()), config.getConsumerGroupConcurrency(),
+            chunk -> httpMetrics.timeKafkaRequest("consumer_group_chunk", () -> fetchGroupInfos(ac, chunk)))
+            .compose(chunkInfos -> {
+                chunkInfos.forEach(consumerGroupInfos::addAll);
+                consumerGroupInfos.forEach(groupIndex::update);
+                // Fetch the topic offsets for all partitions in the selected consumer groups
+                return httpMetrics.timeKafkaRequest("list_offsets", () -> offsetCache.latestOffsets(ac, latestOffsetPartitions(consumerGroupInfos, topicPattern, partitionFilter)));
+            })
+            .map(latestOffsets -> {
+                lagHistory.record(consumerGroupInfos, latestOffsets, System.currentTimeMillis());
+                return new LagTable(consumerGroupInfos, latestOffsets);
+            });
+    }
+
+    /**
+     * Split the group IDs into chunks of at most chunkSize groups.
+     */
+    static List<List<String>> chunks(List<String> groupIds, int chunkSize) {
+        final int size = Math.max(1, chunkSize);
+        List<List<String>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < groupIds.size(); i += size) {
+            chunks.add(groupIds.subList(i, Math.min(i + size, groupIds.size())));
+        }
+
+        return chunks;
+    }
 
+    /**
+     * Describe the groups and fetch the offsets for each of them.
+     */
+    @SuppressWarnings("rawtypes")
+    static Future<List<ConsumerGroupInfo>> fetchGroupInfos(KafkaAdminClient ac, List<String> groupIds) {
         return ac.describeConsumerGroups(groupIds)
             .map(Map::entrySet)
             .map(descriptions -> descriptions.stream()
@@ -562,37 +849,102 @@ public class ConsumerGroupOperations {
                  .map(entry -> ac.listConsumerGroupOffsets(entry.getKey()).map(offsets -> new ConsumerGroupInfo(entry.getValue(), offsets)))
                  .collect(Collectors.<Future>toList()))
             .compose(CompositeFuture::join)
-            .map(CompositeFuture::<ConsumerGroupInfo>list)
-            .compose(groupInfos -> {
-                consumerGroupInfos.addAll(groupInfos);
-                // Fetch the topic offsets for all partitions in the selected consumer groups
-                return ac.listOffsets(toListLatestOffsetMap(groupInfos));
-            })
-            .map(latestOffsets -> consumerGroupInfos.stream()
-                 .map(e -> getConsumerGroupsDescription(topicPattern, memberOrder, partitionFilter, List.of(e.getDescription()), e.getOffsets(), latestOffsets))
-                 .flatMap(List::stream)
-                 .filter(Objects::nonNull));
+            .map(CompositeFuture::<ConsumerGroupInfo>list);
+    }
+
+    /**
+     * Apply the task to each of the items, with at most <code>concurrency</code> tasks
+     * in progress at any time. The returned future fails with the cause of the first
+     * task to fail, after which no further tasks are started.
+     *
+     * @param items the items to process
+     * @param concurrency maximum number of tasks in progress
+     * @param task the asynchronous task
+     * @return future list of the task results, in the order of the items
+     */
+    static <T, R> Future<List<R>> runWindowed(List<T> items, int concurrency, Function<T, Future<R>> task) {
+        if (items.isEmpty()) {
+            return Future.succeededFuture(Collections.emptyList());
+        }
+
+        Promise<List<R>> promise = Promise.promise();
+        AtomicReferenceArray<R> results = new AtomicReferenceArray<>(items.size());
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(items.size());
+
+        for (int i = Math.min(Math.max(1, concurrency), items.size()); i > 0; i--) {
+            runNext(items, task, results, next, remaining, promise);
+        }
+
+        return promise.future();
+    }
+
+    private static <T, R> void runNext(List<T> items,
+                                       Function<T, Future<R>> task,
+                                       AtomicReferenceArray<R> results,
+                                       AtomicInteger next,
+                                       AtomicInteger remaining,
+                                       Promise<List<R>> promise) {
+
+        final int index = next.getAndIncrement();
+
+        if (index >= items.size() || promise.future().isComplete()) {
+            return;
+        }
+
+        task.apply(items.get(index)).onComplete(result -> {
+            if (result.failed()) {
+                promise.tryFail(result.cause());
+            } else {
+                results.set(index, result.result());
+
+                if (remaining.decrementAndGet() == 0) {
+                    List<R> values = new ArrayList<>(results.length());
+                    for (int i = 0; i < results.length(); i++) {
+                        values.add(results.get(i));
+                    }
+                    promise.tryComplete(values);
+                } else {
+                    runNext(items, task, results, next, remaining, promise);
+                }
+            }
+        });
     }
 
     /**
-     * Transform the offsets for all {@link TopicPartition}s from the given list
-     * of {@link ConsumerGroupInfo} to a map with each unique
-     * {@link TopicPartition} and all values set to {@link OffsetSpec#LATEST}.
+     * Select the {@link TopicPartition}s from the committed offsets of the given list of
+     * {@link ConsumerGroupInfo} that will be present in the response, i.e. those of topics
+     * matching the pattern and, for groups with members, the partition matching the
+     * partition filter (when set).
      *
-     * Used to fetch the latest offsets for all {@link TopicPartition}s
-     * included in the listed consumer groups.
+     * Used to fetch the latest offsets only for the {@link TopicPartition}s for which the
+     * lag will be reported.
      *
-     * @param consumerGroupInfos
-     *            list of {@link ConsumerGroupInfo}s for mapping
-     * @return map of all {@link TopicPartition}s from the provided consumer
-     *         groups with values set to {@link OffsetSpec#LATEST}
+     * @param consumerGroupInfos list of {@link ConsumerGroupInfo}s
+     * @param topicPattern regular expression pattern limiting results to matching topics
+     * @param partitionFilter partition number limiting results to a specific partition
+     * @return set of unique {@link TopicPartition}s from the provided consumer groups
      */
-    static Map<TopicPartition, OffsetSpec> toListLatestOffsetMap(List<ConsumerGroupInfo> consumerGroupInfos) {
-        return consumerGroupInfos.stream()
-            .map(ConsumerGroupInfo::getOffsets)
-            .flatMap(offsets -> offsets.keySet().stream())
-            .distinct()
-            .filter(Objects::nonNull)
-            .collect(Collectors.toMap(Function.identity(), partition -> OffsetSpec.LATEST));
+    static Set<TopicPartition> latestOffsetPartitions(List<ConsumerGroupInfo> consumerGroupInfos, Pattern topicPattern, int partitionFilter) {
+        final boolean matchAll = MATCH_ALL.pattern().equals(topicPattern.pattern());
+        Map<String, Boolean> topicMatches = new HashMap<>();
+        Set<TopicPartition> partitions = new HashSet<>();
+
+        for (ConsumerGroupInfo info : consumerGroupInfos) {
+            // The partition filter does not apply to the partitions of groups without members
+            boolean filterPartitions = partitionFilter >= 0 && !info.getDescription().getMembers().isEmpty();
+
+            for (TopicPartition partition : info.getOffsets().keySet()) {
+                if (partition == null || (filterPartitions && partition.getPartition() != partitionFilter)) {
+                    continue;
+                }
+
+                if (matchAll || topicMatches.computeIfAbsent(partition.getTopic(), topic -> topicPattern.matcher(topic).find())) {
+                    partitions.add(partition);
+                }
+            }
+        }
+
+        return partitions;
     }
 }
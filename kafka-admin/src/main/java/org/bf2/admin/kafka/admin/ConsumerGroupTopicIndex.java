@@ -0,0 +1,253 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.Future;
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import io.vertx.kafka.admin.MemberDescription;
+import io.vertx.kafka.client.common.TopicPartition;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the topics consumed by each consumer group and, in reverse, of the groups consuming
+ * each topic. The index is maintained incrementally from the committed offsets and member
+ * assignments of each group described by a request, and is used to skip describing groups that
+ * do not consume any topic matching a request's topic filter.
+ * <p>
+ * The broker omits topics the user is not authorized to describe from a group's committed
+ * offsets, so the index is kept separately for each set of credentials (see {@link #scope(String)}).
+ * A group is only excluded when its entry in the scope is younger than the configured TTL; groups
+ * without an entry, or with an expired entry, are always described.
+ * <p>
+ * The index is only a hint: a group may have started consuming a matching topic since it was
+ * indexed. The groups excluded by the index are described again (without fetching their offsets)
+ * and included when a member is assigned a matching topic, or when the group has no members and
+ * so may have offsets committed by consumers outside of a group membership.
+ * <p>
+ * A TTL of zero disables the index.
+ */
+public class ConsumerGroupTopicIndex {
+
+    private final long ttlMs;
+    private final Map<String, Index> scopes = new HashMap<>();
+    private long lastPurge = System.currentTimeMillis();
+
+    public ConsumerGroupTopicIndex(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public ConsumerGroupTopicIndex(KafkaAdminConfigRetriever config) {
+        this(config.getConsumerGroupTopicIndexTtlMs());
+    }
+
+    public boolean isEnabled() {
+        return ttlMs > 0;
+    }
+
+    /**
+     * Obtain the part of the index visible to requests using the same credentials.
+     *
+     * @param key identifies the credentials of the request
+     * @return the index scope for the credentials
+     */
+    public Scope scope(String key) {
+        return new Scope(key);
+    }
+
+    /**
+     * Remove the group from the index of every scope, e.g. after it has been deleted
+     * or its offsets have been reset.
+     *
+     * @param groupId the consumer group ID
+     */
+    public synchronized void remove(String groupId) {
+        scopes.values().forEach(index -> index.remove(groupId));
+    }
+
+    synchronized void update(String key, String groupId, Set<String> topics) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        scopes.computeIfAbsent(key, k -> new Index()).put(groupId, topics, now);
+
+        if (now - lastPurge >= ttlMs) {
+            lastPurge = now;
+            scopes.values().forEach(index -> index.removeExpired(now, ttlMs));
+            scopes.values().removeIf(Index::isEmpty);
+        }
+    }
+
+    synchronized List<String> candidates(String key, List<String> groupIds, Pattern topicPattern) {
+        Index index = scopes.get(key);
+
+        if (!isEnabled() || index == null) {
+            return groupIds;
+        }
+
+        final long now = System.currentTimeMillis();
+        Set<String> matching = new HashSet<>();
+
+        index.topicGroups.forEach((topic, groups) -> {
+            if (topicPattern.matcher(topic).find()) {
+                matching.addAll(groups);
+            }
+        });
+
+        return groupIds.stream()
+            .filter(groupId -> {
+                Entry entry = index.groups.get(groupId);
+                return entry == null || now - entry.indexedAt >= ttlMs || matching.contains(groupId);
+            })
+            .collect(Collectors.toList());
+    }
+
+    synchronized int size() {
+        return scopes.values().stream().mapToInt(index -> index.groups.size()).sum();
+    }
+
+    /**
+     * The index of the groups described using one set of credentials.
+     */
+    public class Scope {
+        private final String key;
+
+        Scope(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Record the topics the group consumes, replacing any previous entry for the group.
+         *
+         * @param info the group's description and committed offsets
+         */
+        void update(ConsumerGroupInfo info) {
+            Set<String> topics = new HashSet<>();
+
+            info.getOffsets().keySet().forEach(partition -> topics.add(partition.getTopic()));
+
+            for (MemberDescription member : info.getDescription().getMembers()) {
+                for (TopicPartition partition : member.getAssignment().getTopicPartitions()) {
+                    topics.add(partition.getTopic());
+                }
+            }
+
+            ConsumerGroupTopicIndex.this.update(key, info.getDescription().getGroupId(), topics);
+        }
+
+        /**
+         * Select the groups which may consume a topic matching the pattern, i.e. those known
+         * to consume a matching topic and those not (or no longer) present in the index.
+         *
+         * @param groupIds the groups to select from
+         * @param topicPattern the topic filter
+         * @return the selected groups, in the order of <code>groupIds</code>
+         */
+        List<String> candidates(List<String> groupIds, Pattern topicPattern) {
+            return ConsumerGroupTopicIndex.this.candidates(key, groupIds, topicPattern);
+        }
+
+        /**
+         * Select the groups which may consume a topic matching the pattern, describing the groups
+         * excluded by the index to include those which have since been assigned a matching topic.
+         *
+         * @param ac Kafka client used to describe the excluded groups
+         * @param groupIds the groups to select from
+         * @param topicPattern the topic filter
+         * @return future selected groups, in the order of <code>groupIds</code>
+         */
+        Future<List<String>> candidates(KafkaAdminClient ac, List<String> groupIds, Pattern topicPattern) {
+            List<String> candidates = candidates(groupIds, topicPattern);
+
+            if (candidates.size() == groupIds.size()) {
+                return Future.succeededFuture(candidates);
+            }
+
+            Set<String> selected = new HashSet<>(candidates);
+            List<String> excluded = groupIds.stream()
+                .filter(groupId -> !selected.contains(groupId))
+                .collect(Collectors.toList());
+
+            return ac.describeConsumerGroups(excluded)
+                .map(descriptions -> {
+                    descriptions.values()
+                        .stream()
+                        .filter(description -> mayConsume(description, topicPattern))
+                        .map(ConsumerGroupDescription::getGroupId)
+                        .forEach(selected::add);
+
+                    return groupIds.stream()
+                        .filter(selected::contains)
+                        .collect(Collectors.toList());
+                });
+        }
+    }
+
+    /**
+     * Whether a group described after being indexed may consume a topic matching the pattern. Members
+     * only commit offsets for their assigned partitions, but a group without members may have offsets
+     * committed by consumers not using group membership.
+     */
+    static boolean mayConsume(ConsumerGroupDescription description, Pattern topicPattern) {
+        return description.getMembers().isEmpty() || description.getMembers()
+            .stream()
+            .flatMap(member -> member.getAssignment().getTopicPartitions().stream())
+            .anyMatch(partition -> topicPattern.matcher(partition.getTopic()).find());
+    }
+
+    static class Index {
+        final Map<String, Entry> groups = new HashMap<>();
+        final Map<String, Set<String>> topicGroups = new HashMap<>();
+
+        void put(String groupId, Set<String> topics, long indexedAt) {
+            remove(groupId);
+            groups.put(groupId, new Entry(topics, indexedAt));
+            topics.forEach(topic -> topicGroups.computeIfAbsent(topic, t -> new HashSet<>()).add(groupId));
+        }
+
+        void remove(String groupId) {
+            Entry previous = groups.remove(groupId);
+
+            if (previous != null) {
+                previous.topics.forEach(topic -> {
+                    Set<String> consumers = topicGroups.get(topic);
+                    consumers.remove(groupId);
+
+                    if (consumers.isEmpty()) {
+                        topicGroups.remove(topic);
+                    }
+                });
+            }
+        }
+
+        void removeExpired(long now, long ttlMs) {
+            groups.entrySet()
+                .stream()
+                .filter(e -> now - e.getValue().indexedAt >= ttlMs)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(this::remove);
+        }
+
+        boolean isEmpty() {
+            return groups.isEmpty();
+        }
+    }
+
+    static class Entry {
+        final Set<String> topics;
+        final long indexedAt;
+
+        Entry(Set<String> topics, long indexedAt) {
+            this.topics = topics;
+            this.indexedAt = indexedAt;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.kafka.client.common.TopicPartition;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recent history of the latest (log end) offsets of topic partitions, recorded each time the
+ * {@link LogEndOffsetCache} fetches them. Used to estimate how far behind a consumer is in time:
+ * the time at which the partition's end offset passed a group's committed offset is interpolated
+ * between the two samples either side of it, without reading any records.
+ * <p>
+ * Each partition's samples are held in a fixed-size ring buffer of primitive arrays. Samples
+ * closer together than the configured interval replace the most recent sample rather than being
+ * appended, so the buffer covers at least <code>size * interval</code> of history. A size of zero
+ * disables the history.
+ */
+public class EndOffsetHistory {
+
+    /**
+     * Number of partitions above which partitions without a recent sample are removed.
+     */
+    static final int TRIM_THRESHOLD = 50_000;
+
+    /**
+     * Returned when the time lag of a partition can not be estimated.
+     */
+    public static final long UNKNOWN = -1;
+
+    private final int size;
+    private final long intervalMs;
+    private final Map<TopicPartition, Samples> partitions = new HashMap<>();
+
+    public EndOffsetHistory(int size, long intervalMs) {
+        this.size = size;
+        this.intervalMs = intervalMs;
+    }
+
+    public EndOffsetHistory(KafkaAdminConfigRetriever config) {
+        this(config.getEndOffsetHistorySize(), config.getEndOffsetHistoryIntervalMs());
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Record the end offset of the partition fetched at the given time.
+     */
+    public synchronized void record(TopicPartition partition, long offset, long timestamp) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        partitions.computeIfAbsent(partition, p -> new Samples(size)).add(timestamp, offset, intervalMs);
+
+        if (partitions.size() > TRIM_THRESHOLD) {
+            final long window = size * Math.max(intervalMs, 1);
+            partitions.values().removeIf(samples -> timestamp - samples.latestTime() >= window);
+        }
+    }
+
+    /**
+     * Estimate the time elapsed since the record at the committed offset was appended to the partition.
+     * When the committed offset is older than the oldest sample, the age of the oldest sample is returned
+     * (i.e. the lag is at least the value returned).
+     *
+     * @param partition the topic partition
+     * @param committed the committed offset of a consumer group
+     * @param now the current time
+     * @return the estimated time lag in milliseconds, or {@link #UNKNOWN} when the partition has no samples
+     */
+    public synchronized long timeLag(TopicPartition partition, long committed, long now) {
+        Samples samples = partitions.get(partition);
+
+        if (samples == null || samples.count == 0) {
+            return UNKNOWN;
+        }
+
+        return samples.timeLag(committed, now);
+    }
+
+    synchronized int partitionCount() {
+        return partitions.size();
+    }
+
+    static class Samples {
+        final long[] times;
+        final long[] offsets;
+        int start;
+        int count;
+
+        Samples(int size) {
+            times = new long[size];
+            offsets = new long[size];
+        }
+
+        long time(int i) {
+            return times[(start + i) % times.length];
+        }
+
+        long offset(int i) {
+            return offsets[(start + i) % offsets.length];
+        }
+
+        long latestTime() {
+            return time(count - 1);
+        }
+
+        void add(long time, long offset, long intervalMs) {
+            if (count > 0) {
+                if (time < latestTime()) {
+                    // Fetch completed out of order
+                    return;
+                }
+                if (offset < offset(count - 1)) {
+                    // Partition truncated or topic re-created, earlier samples no longer apply
+                    start = 0;
+                    count = 0;
+                }
+            }
+
+            if (count >= 2 && latestTime() - time(count - 2) < intervalMs) {
+                // Latest sample too close to the one before, replace it
+                int last = (start + count - 1) % times.length;
+                times[last] = time;
+                offsets[last] = offset;
+                return;
+            }
+
+            int next = (start + count) % times.length;
+            times[next] = time;
+            offsets[next] = offset;
+
+            if (count < times.length) {
+                count++;
+            } else {
+                start = (start + 1) % times.length;
+            }
+        }
+
+        long timeLag(long committed, long now) {
+            if (committed >= offset(count - 1)) {
+                return 0;
+            }
+
+            // First sample with an end offset beyond the committed offset
+            int low = 0;
+            int high = count - 1;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (offset(mid) > committed) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+
+            if (low == 0) {
+                return Math.max(0, now - time(0));
+            }
+
+            long t0 = time(low - 1);
+            long o0 = offset(low - 1);
+            long t1 = time(low);
+            long o1 = offset(low);
+            // Time at which the end offset passed the committed offset
+            long appended = t0 + (long) ((double) (committed + 1 - o0) / (o1 - o0) * (t1 - t0));
+
+            return Math.max(0, now - appended);
+        }
+    }
+}
@@ -3,11 +3,16 @@ package org.bf2.admin.kafka.admin;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.vertx.core.Future;
 import io.vertx.micrometer.backends.BackendRegistries;
 
+import java.util.function.Supplier;
+
 public class HttpMetrics {
     private static final String FAILED_REQUESTS_COUNTER = "failed_requests";
     private static final String HTTP_STATUS_CODE = "status_code";
+    private static final String KAFKA_REQUEST_TIMER = "kafka_request_time";
+    private static final String KAFKA_REQUEST_STAGE = "stage";
 
     private final PrometheusMeterRegistry meterRegistry;
     private final Counter requestsCounter;
@@ -18,22 +23,28 @@ public class HttpMetrics {
     private final Counter updateTopicCounter;
     private final Counter listTopicsCounter;
     private final Counter describeTopicCounter;
+    private final Counter getTopicConsumerLagCounter;
 
     private final Counter describeGroupCounter;
     private final Counter resetGroupOffsetCounter;
     private final Counter listGroupsCounter;
     private final Counter deleteGroupCounter;
+    private final Counter getGroupLagHistoryCounter;
+    private final Counter exportGroupOffsetsCounter;
 
     private final Timer listTopicRequestTimer;
     private final Timer createTopicRequestTimer;
     private final Timer updateTopicRequestTimer;
     private final Timer deleteTopicRequestTimer;
     private final Timer describeTopicRequestTimer;
+    private final Timer getTopicConsumerLagRequestTimer;
     private final Timer openApiRequestTimer;
     private final Timer describeGroupRequestTimer;
     private final Timer listGroupsRequestTimer;
     private final Timer deleteGroupRequestTimer;
     private final Timer resetGroupOffsetRequestTimer;
+    private final Timer getGroupLagHistoryRequestTimer;
+    private final Timer exportGroupOffsetsRequestTimer;
 
     private final Counter getAclResourceOperationsCounter;
     private final Timer getAclResourceOperationsRequestTimer;
@@ -62,22 +73,28 @@ public class HttpMetrics {
         updateTopicCounter = meterRegistry.counter("update_topic_requests");
         listTopicsCounter = meterRegistry.counter("list_topics_requests");
         describeTopicCounter = meterRegistry.counter("describe_topic_requests");
+        getTopicConsumerLagCounter = meterRegistry.counter("get_topic_consumer_lag_requests");
 
         listGroupsCounter = meterRegistry.counter("list_groups_requests");
         describeGroupCounter = meterRegistry.counter("get_group_requests");
         deleteGroupCounter = meterRegistry.counter("delete_group_requests");
         resetGroupOffsetCounter = meterRegistry.counter("reset_group_offset_requests");
+        getGroupLagHistoryCounter = meterRegistry.counter("get_group_lag_history_requests");
+        exportGroupOffsetsCounter = meterRegistry.counter("export_group_offsets_requests");
 
         listTopicRequestTimer = meterRegistry.timer("list_topics_request_time");
         createTopicRequestTimer = meterRegistry.timer("create_topic_request_time");
         updateTopicRequestTimer = meterRegistry.timer("update_topic_request_time");
         deleteTopicRequestTimer = meterRegistry.timer("delete_topic_request_time");
         describeTopicRequestTimer = meterRegistry.timer("describe_topic_request_time");
+        getTopicConsumerLagRequestTimer = meterRegistry.timer("get_topic_consumer_lag_request_time");
         openApiRequestTimer = meterRegistry.timer("openapi_request_time");
         describeGroupRequestTimer = meterRegistry.timer("describe_group_request_time");
         listGroupsRequestTimer = meterRegistry.timer("list_groups_request_time");
         deleteGroupRequestTimer = meterRegistry.timer("delete_group_request_time");
         resetGroupOffsetRequestTimer = meterRegistry.timer("reset_group_offset_request_time");
+        getGroupLagHistoryRequestTimer = meterRegistry.timer("get_group_lag_history_request_time");
+        exportGroupOffsetsRequestTimer = meterRegistry.timer("export_group_offsets_request_time");
 
         getAclResourceOperationsCounter = meterRegistry.counter("get_acl_resource_operations_requests");
         getAclResourceOperationsRequestTimer = meterRegistry.timer("get_acl_resource_operations_request_time");
@@ -100,6 +117,29 @@ public class HttpMetrics {
         return getRegistry().counter(FAILED_REQUESTS_COUNTER, HTTP_STATUS_CODE, String.valueOf(httpStatusCode));
     }
 
+    /**
+     * Timer for one stage (i.e. a request sent to the Kafka cluster) of handling a REST request.
+     *
+     * @param stage name of the stage, e.g. <code>describe_topics</code>
+     * @return the timer for the stage
+     */
+    public Timer getKafkaRequestTimer(String stage) {
+        return getRegistry().timer(KAFKA_REQUEST_TIMER, KAFKA_REQUEST_STAGE, stage);
+    }
+
+    /**
+     * Start the operation and record its duration, until the returned future completes,
+     * using the timer for the stage.
+     *
+     * @param stage name of the stage, e.g. <code>describe_topics</code>
+     * @param operation supplier starting the operation
+     * @return the future result of the operation
+     */
+    public <T> Future<T> timeKafkaRequest(String stage, Supplier<Future<T>> operation) {
+        Timer.Sample sample = Timer.start(getRegistry());
+        return operation.get().onComplete(result -> sample.stop(getKafkaRequestTimer(stage)));
+    }
+
     public Counter getRequestsCounter() {
         return requestsCounter;
     }
@@ -164,6 +204,14 @@ public class HttpMetrics {
         return describeTopicRequestTimer;
     }
 
+    public Counter getGetTopicConsumerLagCounter() {
+        return getTopicConsumerLagCounter;
+    }
+
+    public Timer getGetTopicConsumerLagRequestTimer() {
+        return getTopicConsumerLagRequestTimer;
+    }
+
     public Timer getOpenApiRequestTimer() {
         return openApiRequestTimer;
     }
@@ -188,6 +236,22 @@ public class HttpMetrics {
         return resetGroupOffsetRequestTimer;
     }
 
+    public Counter getGetGroupLagHistoryCounter() {
+        return getGroupLagHistoryCounter;
+    }
+
+    public Timer getGetGroupLagHistoryRequestTimer() {
+        return getGroupLagHistoryRequestTimer;
+    }
+
+    public Counter getExportGroupOffsetsCounter() {
+        return exportGroupOffsetsCounter;
+    }
+
+    public Timer getExportGroupOffsetsRequestTimer() {
+        return exportGroupOffsetsRequestTimer;
+    }
+
     public Counter getGetAclResourceOperationsCounter() {
         return getAclResourceOperationsCounter;
     }
@@ -49,6 +49,26 @@ public class KafkaAdminConfigRetriever {
 
     public static final String ACL_RESOURCE_OPERATIONS = PREFIX + "ACL_RESOURCE_OPERATIONS";
 
+    public static final String CLIENT_POOL_MAX_SIZE = PREFIX + "CLIENT_POOL_MAX_SIZE";
+    public static final String CLIENT_POOL_IDLE_TIMEOUT_MS = PREFIX + "CLIENT_POOL_IDLE_TIMEOUT_MS";
+
+    public static final String TOPIC_CACHE_TTL_MS = PREFIX + "TOPIC_CACHE_TTL_MS";
+    public static final String TOPIC_CACHE_MAX_SIZE = PREFIX + "TOPIC_CACHE_MAX_SIZE";
+    public static final String CONSUMER_GROUP_CHUNK_SIZE = PREFIX + "CONSUMER_GROUP_CHUNK_SIZE";
+    public static final String CONSUMER_GROUP_CONCURRENCY = PREFIX + "CONSUMER_GROUP_CONCURRENCY";
+    public static final String CONSUMER_GROUP_EXPORT_BATCH_SIZE = PREFIX + "CONSUMER_GROUP_EXPORT_BATCH_SIZE";
+    public static final String LOG_END_OFFSET_CACHE_TTL_MS = PREFIX + "LOG_END_OFFSET_CACHE_TTL_MS";
+    public static final String CONSUMER_GROUP_TOPIC_INDEX_TTL_MS = PREFIX + "CONSUMER_GROUP_TOPIC_INDEX_TTL_MS";
+    public static final String END_OFFSET_HISTORY_SIZE = PREFIX + "END_OFFSET_HISTORY_SIZE";
+    public static final String END_OFFSET_HISTORY_INTERVAL_MS = PREFIX + "END_OFFSET_HISTORY_INTERVAL_MS";
+    public static final String LAG_HISTORY_SIZE = PREFIX + "LAG_HISTORY_SIZE";
+    public static final String LAG_HISTORY_INTERVAL_MS = PREFIX + "LAG_HISTORY_INTERVAL_MS";
+    public static final String LAG_HISTORY_MAX_PARTITIONS = PREFIX + "LAG_HISTORY_MAX_PARTITIONS";
+    public static final String LAG_SAMPLER_INTERVAL_MS = PREFIX + "LAG_SAMPLER_INTERVAL_MS";
+    public static final String LAG_SAMPLER_GROUP_FILTER = PREFIX + "LAG_SAMPLER_GROUP_FILTER";
+    public static final String LAG_SAMPLER_MAX_SERIES = PREFIX + "LAG_SAMPLER_MAX_SERIES";
+    public static final String LAG_SAMPLER_SASL_JAAS_CONFIG = PREFIX + "LAG_SAMPLER_SASL_JAAS_CONFIG";
+
     private final boolean basicEnabled;
     private final boolean oauthEnabled;
     private final boolean brokerTlsEnabled;
@@ -192,6 +212,95 @@ public class KafkaAdminConfigRetriever {
         return System.getenv().getOrDefault("CORS_ALLOW_LIST_REGEX", "(https?:\\/\\/localhost(:\\d*)?)");
     }
 
+    public int getAdminClientPoolMaxSize() {
+        return Integer.parseInt(System.getenv().getOrDefault(CLIENT_POOL_MAX_SIZE, "100"));
+    }
+
+    public long getAdminClientPoolIdleTimeoutMs() {
+        return Long.parseLong(System.getenv().getOrDefault(CLIENT_POOL_IDLE_TIMEOUT_MS, "300000"));
+    }
+
+    public long getTopicCacheTtlMs() {
+        return Long.parseLong(System.getenv().getOrDefault(TOPIC_CACHE_TTL_MS, "10000"));
+    }
+
+    public int getTopicCacheMaxSize() {
+        return Integer.parseInt(System.getenv().getOrDefault(TOPIC_CACHE_MAX_SIZE, "20000"));
+    }
+
+    public int getConsumerGroupChunkSize() {
+        return Integer.parseInt(System.getenv().getOrDefault(CONSUMER_GROUP_CHUNK_SIZE, "25"));
+    }
+
+    public int getConsumerGroupConcurrency() {
+        return Integer.parseInt(System.getenv().getOrDefault(CONSUMER_GROUP_CONCURRENCY, "4"));
+    }
+
+    public int getConsumerGroupExportBatchSize() {
+        return Integer.parseInt(System.getenv().getOrDefault(CONSUMER_GROUP_EXPORT_BATCH_SIZE, "200"));
+    }
+
+    public long getLogEndOffsetCacheTtlMs() {
+        return Long.parseLong(System.getenv().getOrDefault(LOG_END_OFFSET_CACHE_TTL_MS, "2000"));
+    }
+
+    public long getConsumerGroupTopicIndexTtlMs() {
+        return Long.parseLong(System.getenv().getOrDefault(CONSUMER_GROUP_TOPIC_INDEX_TTL_MS, "30000"));
+    }
+
+    public int getEndOffsetHistorySize() {
+        return Integer.parseInt(System.getenv().getOrDefault(END_OFFSET_HISTORY_SIZE, "120"));
+    }
+
+    public long getEndOffsetHistoryIntervalMs() {
+        return Long.parseLong(System.getenv().getOrDefault(END_OFFSET_HISTORY_INTERVAL_MS, "5000"));
+    }
+
+    public int getLagHistorySize() {
+        return Integer.parseInt(System.getenv().getOrDefault(LAG_HISTORY_SIZE, "60"));
+    }
+
+    public long getLagHistoryIntervalMs() {
+        return Long.parseLong(System.getenv().getOrDefault(LAG_HISTORY_INTERVAL_MS, "10000"));
+    }
+
+    public int getLagHistoryMaxPartitions() {
+        return Integer.parseInt(System.getenv().getOrDefault(LAG_HISTORY_MAX_PARTITIONS, "20000"));
+    }
+
+    public long getLagSamplerIntervalMs() {
+        return Long.parseLong(System.getenv().getOrDefault(LAG_SAMPLER_INTERVAL_MS, "0"));
+    }
+
+    public String getLagSamplerGroupFilter() {
+        return System.getenv().getOrDefault(LAG_SAMPLER_GROUP_FILTER, ".*");
+    }
+
+    public int getLagSamplerMaxSeries() {
+        return Integer.parseInt(System.getenv().getOrDefault(LAG_SAMPLER_MAX_SERIES, "10000"));
+    }
+
+    /**
+     * Admin client configuration used by the consumer group lag sampler. When the admin
+     * server authenticates to Kafka using the credentials of each request, the sampler's
+     * own credentials must be given in {@link #LAG_SAMPLER_SASL_JAAS_CONFIG}.
+     *
+     * @return the sampler's Admin client configuration, or null when credentials are
+     *         required but not configured
+     */
+    public Map<String, Object> getLagSamplerAcConfig() {
+        Map<String, Object> samplerConfig = getAcConfig();
+        String jaasConfig = System.getenv(LAG_SAMPLER_SASL_JAAS_CONFIG);
+
+        if (jaasConfig != null) {
+            samplerConfig.put(SaslConfigs.SASL_JAAS_CONFIG, jaasConfig);
+        } else if (oauthEnabled || basicEnabled) {
+            return null;
+        }
+
+        return samplerConfig;
+    }
+
     public String getAclResourceOperations() {
         String value = System.getenv(ACL_RESOURCE_OPERATIONS);
         return value != null ? value : "{}";
@@ -0,0 +1,229 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Committed and latest (log end) offsets of the partitions of a set of consumer groups, used to
+ * calculate the groups' lag. Topic names are mapped to integer IDs (in name order) and the offsets
+ * of each topic's partitions are held in a <code>long[]</code> indexed by partition number, both for
+ * the latest offsets and for each group's committed offsets.
+ * <p>
+ * The table is built once per request from the maps returned by the client. Each group's map of
+ * committed offsets is released once copied (see {@link ConsumerGroupInfo#getOffsets()}), so the
+ * memory held for the remainder of the request scales with the number of partitions rather than
+ * the number of boxed offset objects.
+ */
+class LagTable {
+
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private final Map<String, Integer> topicIds = new HashMap<>();
+    private final String[] topics;
+    private final long[][] endOffsets;
+
+    /**
+     * Build the table, replacing the committed offsets map of each group with its committed
+     * offsets indexed by the table's topic IDs.
+     *
+     * @param consumerGroupInfos the groups and their committed offsets
+     * @param latestOffsets the latest offsets of (some of) the groups' partitions
+     */
+    LagTable(List<ConsumerGroupInfo> consumerGroupInfos, Map<TopicPartition, ListOffsetsResultInfo> latestOffsets) {
+        TreeSet<String> topicNames = new TreeSet<>();
+
+        latestOffsets.keySet().forEach(partition -> topicNames.add(partition.getTopic()));
+
+        for (ConsumerGroupInfo info : consumerGroupInfos) {
+            info.getOffsets().keySet().forEach(partition -> {
+                if (partition != null) {
+                    topicNames.add(partition.getTopic());
+                }
+            });
+        }
+
+        topics = topicNames.toArray(new String[0]);
+
+        for (int topicId = 0; topicId < topics.length; topicId++) {
+            topicIds.put(topics[topicId], topicId);
+        }
+
+        int[] partitionCounts = new int[topics.length];
+        latestOffsets.keySet().forEach(partition -> count(partitionCounts, partition));
+        endOffsets = allocate(partitionCounts);
+
+        latestOffsets.forEach((partition, offset) -> {
+            if (offset != null) {
+                endOffsets[topicIds.get(partition.getTopic())][partition.getPartition()] = offset.getOffset();
+            }
+        });
+
+        // Re-used for each group, only the entries of the group's topics are set
+        Arrays.fill(partitionCounts, 0);
+        int[] groupTopicIds = new int[topics.length];
+
+        for (ConsumerGroupInfo info : consumerGroupInfos) {
+            info.committed = committedOffsets(info.getOffsets(), partitionCounts, groupTopicIds);
+            info.offsets = null;
+        }
+    }
+
+    private void count(int[] partitionCounts, TopicPartition partition) {
+        int topicId = topicIds.get(partition.getTopic());
+        partitionCounts[topicId] = Math.max(partitionCounts[topicId], partition.getPartition() + 1);
+    }
+
+    private static long[][] allocate(int[] partitionCounts) {
+        long[][] offsets = new long[partitionCounts.length][];
+
+        for (int topicId = 0; topicId < offsets.length; topicId++) {
+            offsets[topicId] = new long[partitionCounts[topicId]];
+            Arrays.fill(offsets[topicId], MISSING);
+        }
+
+        return offsets;
+    }
+
+    private GroupOffsets committedOffsets(Map<TopicPartition, OffsetAndMetadata> committedOffsets, int[] partitionCounts, int[] scratch) {
+        int groupTopicCount = 0;
+
+        for (TopicPartition partition : committedOffsets.keySet()) {
+            if (partition != null) {
+                int topicId = topicIds.get(partition.getTopic());
+
+                if (partitionCounts[topicId] == 0) {
+                    scratch[groupTopicCount++] = topicId;
+                }
+
+                count(partitionCounts, partition);
+            }
+        }
+
+        int[] groupTopicIds = Arrays.copyOf(scratch, groupTopicCount);
+        Arrays.sort(groupTopicIds);
+        long[][] offsets = new long[groupTopicCount][];
+
+        for (int i = 0; i < groupTopicCount; i++) {
+            offsets[i] = new long[partitionCounts[groupTopicIds[i]]];
+            Arrays.fill(offsets[i], MISSING);
+            partitionCounts[groupTopicIds[i]] = 0;
+        }
+
+        committedOffsets.forEach((partition, committed) -> {
+            if (partition != null) {
+                int i = Arrays.binarySearch(groupTopicIds, topicIds.get(partition.getTopic()));
+                offsets[i][partition.getPartition()] = committed != null ? committed.getOffset() : 0;
+            }
+        });
+
+        return new GroupOffsets(groupTopicIds, offsets);
+    }
+
+    /**
+     * @return the latest offset of the partition, or zero when not known
+     */
+    private long endOffset(int topicId, int partition) {
+        long[] offsets = endOffsets[topicId];
+        return partition < offsets.length && offsets[partition] != MISSING ? offsets[partition] : 0;
+    }
+
+    /**
+     * Obtain the committed offset, latest offset and lag of each of a consumer group's partitions
+     * of topics accepted by the filter, ordered by topic name and partition.
+     * <p>
+     * The lag is negative when the committed offset is ahead of the latest offset (the latest
+     * offsets may be cached, or not known for the partition). Views aggregating the lag count
+     * this as no lag.
+     *
+     * @param info a group added to the table
+     * @param topicFilter selects the topics to include
+     * @return the offsets of the group's partitions
+     */
+    Offsets offsets(ConsumerGroupInfo info, Predicate<String> topicFilter) {
+        GroupOffsets group = info.committed;
+        boolean[] included = new boolean[group.topicIds.length];
+        int size = 0;
+
+        for (int t = 0; t < included.length; t++) {
+            included[t] = topicFilter.test(topics[group.topicIds[t]]);
+
+            if (included[t]) {
+                for (long committed : group.offsets[t]) {
+                    if (committed != MISSING) {
+                        size++;
+                    }
+                }
+            }
+        }
+
+        Offsets result = new Offsets(size);
+        int i = 0;
+
+        for (int t = 0; t < included.length; t++) {
+            if (!included[t]) {
+                continue;
+            }
+
+            final int topicId = group.topicIds[t];
+            final long[] committedOffsets = group.offsets[t];
+
+            for (int partition = 0; partition < committedOffsets.length; partition++) {
+                if (committedOffsets[partition] != MISSING) {
+                    result.topic[i] = topics[topicId];
+                    result.partition[i] = partition;
+                    result.committed[i] = committedOffsets[partition];
+                    result.end[i] = endOffset(topicId, partition);
+                    i++;
+                }
+            }
+        }
+
+        for (i = 0; i < size; i++) {
+            result.lag[i] = result.end[i] - result.committed[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * A group's committed offsets, for each of the group's topics (ascending table topic IDs)
+     * indexed by partition number.
+     */
+    static class GroupOffsets {
+        final int[] topicIds;
+        final long[][] offsets;
+
+        GroupOffsets(int[] topicIds, long[][] offsets) {
+            this.topicIds = topicIds;
+            this.offsets = offsets;
+        }
+    }
+
+    static class Offsets {
+        final String[] topic;
+        final int[] partition;
+        final long[] committed;
+        final long[] end;
+        final long[] lag;
+
+        Offsets(int size) {
+            topic = new String[size];
+            partition = new int[size];
+            committed = new long[size];
+            end = new long[size];
+            lag = new long[size];
+        }
+
+        int size() {
+            return lag.length;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.admin.OffsetSpec;
+import io.vertx.kafka.client.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of the latest (log end) offsets of topic partitions, shared by all users,
+ * used when calculating consumer group lag. Offsets are re-fetched once older than the configured
+ * staleness bound. Requests for partitions that are already being fetched by another request wait
+ * for that fetch rather than sending a separate <code>listOffsets</code> request to the cluster.
+ * <p>
+ * Callers must restrict lookups to partitions the requesting user may describe. The partitions of
+ * a consumer group's committed offsets satisfy this, since the broker omits partitions of topics
+ * the user is not authorized to describe from the offsets of a group.
+ * <p>
+ * A staleness bound of zero disables caching, although concurrent fetches are still combined.
+ * <p>
+ * Each fetched offset is also recorded in the cache's {@link EndOffsetHistory}.
+ */
+public class LogEndOffsetCache {
+
+    /**
+     * Number of entries above which expired entries are removed when a fetch completes.
+     */
+    static final int TRIM_THRESHOLD = 50_000;
+
+    private final long ttlMs;
+    private final EndOffsetHistory history;
+    private final Map<TopicPartition, Entry> offsets = new HashMap<>();
+    private final Map<TopicPartition, Future<Map<TopicPartition, ListOffsetsResultInfo>>> pending = new HashMap<>();
+
+    public LogEndOffsetCache(long ttlMs, EndOffsetHistory history) {
+        this.ttlMs = ttlMs;
+        this.history = history;
+    }
+
+    public LogEndOffsetCache(long ttlMs) {
+        this(ttlMs, new EndOffsetHistory(0, 0));
+    }
+
+    public LogEndOffsetCache(KafkaAdminConfigRetriever config) {
+        this(config.getLogEndOffsetCacheTtlMs(), new EndOffsetHistory(config));
+    }
+
+    public EndOffsetHistory history() {
+        return history;
+    }
+
+    /**
+     * Obtain the latest offsets of the partitions, using cached offsets when available and
+     * fetching the others using the given client or waiting for a fetch already in progress.
+     *
+     * @param ac Kafka client
+     * @param partitions partitions for which to obtain the latest offset
+     * @return future map of partitions to their latest offsets
+     */
+    @SuppressWarnings("rawtypes")
+    public Future<Map<TopicPartition, ListOffsetsResultInfo>> latestOffsets(KafkaAdminClient ac, Collection<TopicPartition> partitions) {
+        final long now = System.currentTimeMillis();
+        final Map<TopicPartition, ListOffsetsResultInfo> result = new HashMap<>(partitions.size());
+        final Map<Future<Map<TopicPartition, ListOffsetsResultInfo>>, List<TopicPartition>> joined = new IdentityHashMap<>();
+        final List<TopicPartition> missing = new ArrayList<>();
+        final Promise<Map<TopicPartition, ListOffsetsResultInfo>> fetch = Promise.promise();
+
+        synchronized (this) {
+            for (TopicPartition partition : partitions) {
+                Entry entry = offsets.get(partition);
+
+                if (entry != null && now - entry.fetchedAt < ttlMs) {
+                    result.put(partition, entry.offset);
+                } else if (pending.containsKey(partition)) {
+                    joined.computeIfAbsent(pending.get(partition), k -> new ArrayList<>()).add(partition);
+                } else {
+                    missing.add(partition);
+                    pending.put(partition, fetch.future());
+                }
+            }
+        }
+
+        if (missing.isEmpty() && joined.isEmpty()) {
+            return Future.succeededFuture(result);
+        }
+
+        if (missing.isEmpty()) {
+            fetch.complete(Map.of());
+        } else {
+            fetch(ac, missing, fetch);
+        }
+
+        List<Future> waiting = new ArrayList<>(joined.keySet());
+        waiting.add(fetch.future());
+
+        return CompositeFuture.join(waiting)
+            .otherwiseEmpty()
+            .compose(nothing -> {
+                if (fetch.future().failed()) {
+                    return Future.failedFuture(fetch.future().cause());
+                }
+
+                result.putAll(fetch.future().result());
+                List<TopicPartition> retry = new ArrayList<>();
+
+                joined.forEach((future, joinedPartitions) -> {
+                    if (future.succeeded()) {
+                        joinedPartitions.forEach(partition -> result.put(partition, future.result().get(partition)));
+                    } else {
+                        // The other request's fetch failed (e.g. different credentials), fetch using this client
+                        retry.addAll(joinedPartitions);
+                    }
+                });
+
+                if (retry.isEmpty()) {
+                    return Future.succeededFuture(result);
+                }
+
+                return ac.listOffsets(toLatest(retry)).map(retried -> {
+                    record(retried, System.currentTimeMillis());
+                    result.putAll(retried);
+                    return result;
+                });
+            });
+    }
+
+    private void fetch(KafkaAdminClient ac, List<TopicPartition> partitions, Promise<Map<TopicPartition, ListOffsetsResultInfo>> promise) {
+        ac.listOffsets(toLatest(partitions)).onComplete(fetched -> {
+            final long fetchedAt = System.currentTimeMillis();
+
+            synchronized (this) {
+                partitions.forEach(partition -> pending.remove(partition, promise.future()));
+
+                if (fetched.succeeded()) {
+                    record(fetched.result(), fetchedAt);
+                }
+
+                if (fetched.succeeded() && ttlMs > 0) {
+                    fetched.result().forEach((partition, offset) -> offsets.put(partition, new Entry(offset, fetchedAt)));
+
+                    if (offsets.size() > TRIM_THRESHOLD) {
+                        offsets.values().removeIf(entry -> fetchedAt - entry.fetchedAt >= ttlMs);
+                    }
+                }
+            }
+
+            promise.handle(fetched);
+        });
+    }
+
+    private void record(Map<TopicPartition, ListOffsetsResultInfo> fetched, long fetchedAt) {
+        if (history.isEnabled()) {
+            fetched.forEach((partition, offset) -> {
+                if (offset != null) {
+                    history.record(partition, offset.getOffset(), fetchedAt);
+                }
+            });
+        }
+    }
+
+    synchronized int size() {
+        return offsets.size();
+    }
+
+    static Map<TopicPartition, OffsetSpec> toLatest(Collection<TopicPartition> partitions) {
+        return partitions.stream().collect(Collectors.toMap(Function.identity(), partition -> OffsetSpec.LATEST));
+    }
+
+    static class Entry {
+        final ListOffsetsResultInfo offset;
+        final long fetchedAt;
+
+        Entry(ListOffsetsResultInfo offset, long fetchedAt) {
+            this.offset = offset;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
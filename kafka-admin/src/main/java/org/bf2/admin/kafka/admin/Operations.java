@@ -6,10 +6,13 @@ public class Operations {
     public static final String DELETE_TOPIC = "deleteTopic";
     public static final String CREATE_TOPIC = "createTopic";
     public static final String UPDATE_TOPIC = "updateTopic";
+    public static final String GET_TOPIC_CONSUMER_LAG = "getTopicConsumerLag";
     public static final String GET_CONSUMER_GROUP = "getConsumerGroupById";
     public static final String GET_CONSUMER_GROUPS_LIST = "getConsumerGroups";
     public static final String DELETE_CONSUMER_GROUP = "deleteConsumerGroupById";
     public static final String RESET_CONSUMER_GROUP_OFFSET = "resetConsumerGroupOffset";
+    public static final String GET_CONSUMER_GROUP_LAG_HISTORY = "getConsumerGroupLagHistory";
+    public static final String EXPORT_CONSUMER_GROUP_OFFSETS = "exportConsumerGroupOffsets";
 
     public static final String GET_ACL_RESOURCE_OPERATIONS = "getAclResourceOperations";
     public static final String GET_ACLS = "getAcls";
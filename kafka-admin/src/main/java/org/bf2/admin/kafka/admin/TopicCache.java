@@ -0,0 +1,219 @@
+package org.bf2.admin.kafka.admin;
+
+import org.bf2.admin.kafka.admin.model.Types;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of topic descriptions and configurations. Entries expire after the
+ * configured TTL and are invalidated when a topic is created, updated or deleted through the
+ * admin server.
+ * <p>
+ * Topic descriptions (partitions) are shared by all users - callers must restrict lookups to
+ * the topic names visible to the requesting user (i.e. the result of the user's own
+ * <code>listTopics</code> request). A user permitted to describe a topic is not necessarily
+ * permitted to describe its configuration, so configurations are only returned to requests
+ * using the same credentials as the request that loaded them (see {@link #scope(String)}).
+ * <p>
+ * A TTL of zero disables the cache.
+ */
+public class TopicCache {
+
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<String, Entry> topics = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public TopicCache(long ttlMs, int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public TopicCache(KafkaAdminConfigRetriever config) {
+        this(config.getTopicCacheTtlMs(), config.getTopicCacheMaxSize());
+    }
+
+    public boolean isEnabled() {
+        return ttlMs > 0;
+    }
+
+    /**
+     * Obtain the view of the cache for requests using the same credentials.
+     *
+     * @param credentialsKey identifies the credentials of the request
+     * @return the cache scope for the credentials
+     */
+    public Scope scope(String credentialsKey) {
+        return new Scope(credentialsKey);
+    }
+
+    public void invalidate(String name) {
+        generation.incrementAndGet();
+        topics.remove(name);
+    }
+
+    int size() {
+        return topics.size();
+    }
+
+    /**
+     * Remove expired entries and, if the cache is still over capacity, the
+     * oldest entries until it is within 90% of capacity.
+     */
+    private synchronized void trim() {
+        final long now = System.currentTimeMillis();
+        topics.values().removeIf(entry -> entry.expire(now, ttlMs));
+
+        int excess = topics.size() - (maxSize - maxSize / 10);
+
+        if (excess > 0) {
+            topics.entrySet()
+                .stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().createdAt))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(topics::remove);
+        }
+    }
+
+    /**
+     * The cached topics visible to requests using one set of credentials: the shared
+     * descriptions and the configurations loaded using the same credentials.
+     */
+    public class Scope {
+        private final String credentialsKey;
+
+        Scope(String credentialsKey) {
+            this.credentialsKey = credentialsKey;
+        }
+
+        /**
+         * Current generation of the cache. Callers loading topics into the cache must obtain
+         * the generation before requesting the topic metadata from the cluster and pass it to
+         * {@link #put(Types.Topic, long)}, so that results loaded concurrently with an
+         * invalidation are discarded.
+         *
+         * @return the current generation
+         */
+        public long generation() {
+            return generation.get();
+        }
+
+        /**
+         * @param name topic name
+         * @return a copy of the cached topic, without the partitions and/or configuration when
+         *         these are not present or expired, or null when neither is present
+         */
+        public Types.Topic get(String name) {
+            if (!isEnabled()) {
+                return null;
+            }
+
+            Entry entry = topics.get(name);
+
+            if (entry == null) {
+                return null;
+            }
+
+            final long now = System.currentTimeMillis();
+            Loaded<Types.Topic> description = entry.description;
+            Loaded<List<Types.ConfigEntry>> config = entry.configs.get(credentialsKey);
+            boolean described = description != null && !description.expired(now, ttlMs);
+            boolean configured = config != null && !config.expired(now, ttlMs);
+
+            if (!described && !configured) {
+                return null;
+            }
+
+            Types.Topic topic = new Types.Topic();
+            topic.setName(name);
+
+            if (described) {
+                topic.setIsInternal(description.value.getIsInternal());
+                topic.setPartitions(description.value.getPartitions());
+            }
+
+            if (configured) {
+                topic.setConfig(config.value);
+            }
+
+            return topic;
+        }
+
+        /**
+         * Cache the topic's partitions and/or configuration, where not already cached.
+         */
+        public void put(Types.Topic topic, long loadGeneration) {
+            if (!isEnabled() || loadGeneration != generation.get()) {
+                return;
+            }
+
+            final long now = System.currentTimeMillis();
+            Entry entry = topics.computeIfAbsent(topic.getName(), name -> new Entry(now));
+
+            if (topic.getPartitions() != null) {
+                entry.describe(topic, now, ttlMs);
+            }
+
+            if (topic.getConfig() != null) {
+                entry.configs.compute(credentialsKey, (key, config) ->
+                    config == null || config.expired(now, ttlMs) ? new Loaded<>(topic.getConfig(), now) : config);
+            }
+
+            if (topics.size() > maxSize) {
+                trim();
+            }
+        }
+    }
+
+    static class Entry {
+        final long createdAt;
+        volatile Loaded<Types.Topic> description;
+        final Map<String, Loaded<List<Types.ConfigEntry>>> configs = new ConcurrentHashMap<>();
+
+        Entry(long createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        synchronized void describe(Types.Topic topic, long now, long ttlMs) {
+            if (description == null || description.expired(now, ttlMs)) {
+                Types.Topic described = new Types.Topic();
+                described.setName(topic.getName());
+                described.setIsInternal(topic.getIsInternal());
+                described.setPartitions(topic.getPartitions());
+                description = new Loaded<>(described, now);
+            }
+        }
+
+        /**
+         * Remove the expired configurations.
+         *
+         * @return true when nothing remains in the entry
+         */
+        boolean expire(long now, long ttlMs) {
+            configs.values().removeIf(config -> config.expired(now, ttlMs));
+            Loaded<Types.Topic> current = description;
+            return configs.isEmpty() && (current == null || current.expired(now, ttlMs));
+        }
+    }
+
+    static class Loaded<T> {
+        final T value;
+        final long loadedAt;
+
+        Loaded(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean expired(long now, long ttlMs) {
+            return now - loadedAt >= ttlMs;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import io.vertx.kafka.admin.TopicDescription;
+import org.bf2.admin.kafka.admin.model.Types;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Lag of the consumer groups consuming a topic.
+ */
+public class TopicConsumerLagOperations {
+
+    private TopicConsumerLagOperations() {
+    }
+
+    /**
+     * Obtain the lag of each consumer group with offsets committed for the topic. The groups' committed
+     * offsets are fetched as when listing groups filtered by the topic, and the latest offsets of the
+     * topic's partitions are fetched once for all of the groups.
+     */
+    @SuppressWarnings("rawtypes")
+    public static void getTopicConsumerLag(KafkaAdminClient ac, Promise<Types.TopicConsumerLag> prom, String topicName, KafkaAdminConfigRetriever config, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory, ConsumerGroupTopicIndex.Scope groupIndex, HttpMetrics httpMetrics) {
+        final Pattern topicPattern = Pattern.compile("^" + Pattern.quote(topicName) + "$");
+        List<ConsumerGroupInfo> consumerGroupInfos = new ArrayList<>();
+
+        // Describing the topic fails the request when the topic does not exist or may not be described
+        Future<Map<String, TopicDescription>> topic = httpMetrics.timeKafkaRequest("describe_topics",
+            () -> ac.describeTopics(List.of(topicName)));
+        Future<List<String>> groupIds = ac.listConsumerGroups()
+            .map(groups -> groups.stream()
+                 .map(listing -> listing.getGroupId())
+                 .collect(Collectors.toList()));
+
+        CompositeFuture.all(topic, groupIds)
+            .compose(nothing -> groupIndex.candidates(ac, groupIds.result(), topicPattern))
+            .compose(candidateIds -> ConsumerGroupOperations.fetchGroupOffsets(ac, candidateIds, consumerGroupInfos, topicPattern, -1, config, offsetCache, lagHistory, groupIndex, httpMetrics))
+            .map(lagTable -> getTopicConsumerLag(topicName, consumerGroupInfos, lagTable))
+            .onComplete(res -> {
+                if (res.failed()) {
+                    prom.fail(res.cause());
+                } else {
+                    prom.complete(res.result());
+                }
+            });
+    }
+
+    static Types.TopicConsumerLag getTopicConsumerLag(String topicName, List<ConsumerGroupInfo> consumerGroupInfos, LagTable lagTable) {
+        List<Types.TopicConsumerGroupLag> groups = new ArrayList<>();
+        long topicLag = 0;
+
+        for (ConsumerGroupInfo info : consumerGroupInfos) {
+            LagTable.Offsets offsets = lagTable.offsets(info, topicName::equals);
+
+            if (offsets.size() == 0) {
+                continue;
+            }
+
+            List<Types.PartitionLag> partitionLags = new ArrayList<>(offsets.size());
+            long groupLag = 0;
+
+            for (int i = 0; i < offsets.size(); i++) {
+                Types.PartitionLag partitionLag = new Types.PartitionLag();
+                partitionLag.setPartition(offsets.partition[i]);
+                partitionLag.setOffset(offsets.committed[i]);
+                partitionLag.setLogEndOffset(offsets.end[i]);
+                partitionLag.setLag(Math.max(0, offsets.lag[i]));
+                groupLag += partitionLag.getLag();
+                partitionLags.add(partitionLag);
+            }
+
+            Types.TopicConsumerGroupLag group = new Types.TopicConsumerGroupLag();
+            group.setGroupId(info.getDescription().getGroupId());
+            group.setState(info.getDescription().getState().name());
+            group.setTotalLag(groupLag);
+            group.setPartitions(partitionLags);
+            groups.add(group);
+            topicLag += groupLag;
+        }
+
+        groups.sort(Comparator.comparingLong(Types.TopicConsumerGroupLag::getTotalLag)
+                    .reversed()
+                    .thenComparing(Types.TopicConsumerGroupLag::getGroupId));
+
+        Types.TopicConsumerLag result = new Types.TopicConsumerLag();
+        result.setTopic(topicName);
+        result.setTotalLag(topicLag);
+        result.setGroups(groups);
+        return result;
+    }
+}
@@ -3,23 +3,33 @@ package org.bf2.admin.kafka.admin;
 import io.vertx.kafka.admin.NewPartitions;
 import org.bf2.admin.kafka.admin.model.Types;
 import org.bf2.admin.kafka.admin.handlers.CommonHandler;
+import org.bf2.admin.kafka.admin.handlers.SortKeys;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.kafka.admin.Config;
 import io.vertx.kafka.admin.ConfigEntry;
 import io.vertx.kafka.admin.KafkaAdminClient;
-import io.vertx.kafka.admin.NewTopic;
 import io.vertx.kafka.admin.TopicDescription;
 import io.vertx.kafka.client.common.ConfigResource;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.CreateTopicsResult;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.errors.InvalidRequestException;
+import org.apache.kafka.common.errors.TimeoutException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -29,9 +39,37 @@ public class TopicOperations {
     private static final short DEFAULT_REPLICATION_FACTOR = 3;
     public static final short DEFAULT_PARTITIONS = 1;
     private static final short REPLICATION_FACTOR = System.getenv("KAFKA_ADMIN_REPLICATION_FACTOR") == null ? DEFAULT_REPLICATION_FACTOR : Short.valueOf(System.getenv("KAFKA_ADMIN_REPLICATION_FACTOR"));
+    private static final long LEADER_POLL_INITIAL_BACKOFF_MS = 50;
+    private static final long LEADER_POLL_MAX_BACKOFF_MS = 1000;
+    private static final long LEADER_WAIT_TIMEOUT_MS = 10_000;
 
-    public static void createTopic(KafkaAdminClient ac, Promise prom, Types.NewTopic inputTopic) {
-        NewTopic newKafkaTopic = new NewTopic();
+    /**
+     * Topic sort keys that require the topic's description (partitions).
+     */
+    private static final Set<String> DESCRIPTION_SORT_KEYS = Set.of("partitions");
+
+    /**
+     * Topic sort keys that require the topic's configuration.
+     */
+    private static final Set<String> CONFIG_SORT_KEYS = Set.of("retention.ms", "retention.bytes");
+
+    /**
+     * Create the topic. The response is built from the partition count and configuration
+     * returned by the broker in the CreateTopics response, falling back to describing the
+     * topic when these are not available (e.g. the user is not authorized to describe the
+     * topic's configuration). When <code>waitForLeaders</code> is set, the topic is polled
+     * (with backoff) until every partition has a leader, and the response includes the
+     * partitions' replicas and leaders.
+     */
+    public static void createTopic(KafkaAdminClient ac, Admin admin, Vertx vertx, Promise prom, Types.NewTopic inputTopic, boolean waitForLeaders, HttpMetrics httpMetrics) {
+        createTopic(ac, admin, vertx, prom, inputTopic, waitForLeaders, LEADER_WAIT_TIMEOUT_MS, httpMetrics);
+    }
+
+    /**
+     * @param leaderTimeoutMs how long to wait for the partition leaders when <code>waitForLeaders</code> is set
+     */
+    static void createTopic(KafkaAdminClient ac, Admin admin, Vertx vertx, Promise prom, Types.NewTopic inputTopic, boolean waitForLeaders, long leaderTimeoutMs, HttpMetrics httpMetrics) {
+        final String topicName = inputTopic.getName();
 
         Map<String, String> config = new HashMap<>();
         List<Types.NewTopicConfigEntry> configObject = inputTopic.getSettings().getConfig();
@@ -41,34 +79,133 @@ public class TopicOperations {
             });
         }
 
-        newKafkaTopic.setName(inputTopic.getName());
-        newKafkaTopic.setReplicationFactor(REPLICATION_FACTOR);
-        newKafkaTopic.setNumPartitions(inputTopic.getSettings().getNumPartitions() == null ? DEFAULT_PARTITIONS : inputTopic.getSettings().getNumPartitions());
-        if (config != null) {
-            newKafkaTopic.setConfig(config);
-        }
+        int numPartitions = inputTopic.getSettings().getNumPartitions() == null ? DEFAULT_PARTITIONS : inputTopic.getSettings().getNumPartitions();
+        NewTopic newKafkaTopic = new NewTopic(topicName, numPartitions, REPLICATION_FACTOR);
+        newKafkaTopic.configs(config);
 
-        ac.createTopics(Collections.singletonList(newKafkaTopic), res -> {
-            if (res.failed()) {
-                prom.fail(res.cause());
-                ac.close();
-            } else {
-                getTopicDescAndConf(ac, inputTopic.getName()).future()
-                    .onComplete(desc -> {
-                        if (desc.failed()) {
-                            prom.fail(desc.cause());
-                        } else {
-                            prom.complete(desc.result());
-                        }
-                        ac.close();
+        CreateTopicsResult result = admin.createTopics(Collections.singletonList(newKafkaTopic));
+
+        httpMetrics.timeKafkaRequest("create_topics", () -> toFuture(result.all()))
+            .compose(nothing -> getCreatedTopic(result, topicName)
+                .recover(error -> {
+                    log.debug("Topic {} metadata not returned on creation, describing topic: {}", topicName, error.getMessage());
+                    return getTopicDescAndConf(ac, topicName, httpMetrics).future();
+                }))
+            .compose(topic -> {
+                if (!waitForLeaders) {
+                    return Future.succeededFuture(topic);
+                }
+
+                Promise<Types.Topic> described = Promise.promise();
+                long deadline = System.currentTimeMillis() + leaderTimeoutMs;
+                awaitLeaders(ac, vertx, topicName, LEADER_POLL_INITIAL_BACKOFF_MS, deadline, described);
+
+                return described.future()
+                    .map(desc -> {
+                        topic.setIsInternal(desc.getIsInternal());
+                        topic.setPartitions(desc.getPartitions());
+                        return topic;
+                    })
+                    .otherwise(error -> {
+                        log.warn("Leaders not available for all partitions of topic {}: {}", topicName, error.getMessage());
+                        return topic;
                     });
+            })
+            .onComplete(created -> {
+                if (created.failed()) {
+                    prom.fail(created.cause());
+                } else {
+                    prom.complete(created.result());
+                }
+            });
+    }
+
+    /**
+     * Build the topic from the partition count and configuration included in the CreateTopics
+     * response. The partitions include only their IDs.
+     */
+    private static Future<Types.Topic> getCreatedTopic(CreateTopicsResult result, String topicName) {
+        Promise<Types.Topic> promise = Promise.promise();
+
+        result.numPartitions(topicName).whenComplete((numPartitions, partitionsError) -> {
+            if (partitionsError != null) {
+                promise.fail(partitionsError);
+                return;
+            }
+
+            result.config(topicName).whenComplete((cfg, configError) -> {
+                if (configError != null) {
+                    promise.fail(configError);
+                    return;
+                }
+
+                Types.Topic topic = new Types.Topic();
+                topic.setName(topicName);
+                topic.setIsInternal(false);
+
+                List<Types.Partition> partitions = new ArrayList<>(numPartitions);
+                for (int i = 0; i < numPartitions; i++) {
+                    Types.Partition partition = new Types.Partition();
+                    partition.setPartition(i);
+                    partitions.add(partition);
+                }
+                topic.setPartitions(partitions);
+
+                List<Types.ConfigEntry> topicConfigEntries = new ArrayList<>();
+                cfg.entries().forEach(entry -> {
+                    Types.ConfigEntry ce = new Types.ConfigEntry();
+                    ce.setKey(entry.name());
+                    ce.setValue(entry.value());
+                    topicConfigEntries.add(ce);
+                });
+                topic.setConfig(topicConfigEntries);
+
+                promise.complete(topic);
+            });
+        });
+
+        return promise.future();
+    }
+
+    /**
+     * Describe the topic until a leader is available for all of its partitions, waiting
+     * between attempts with an exponentially increasing backoff. The topic may not yet be
+     * known to the broker handling the request (metadata propagation), which is also retried.
+     */
+    private static void awaitLeaders(KafkaAdminClient ac, Vertx vertx, String topicName, long backoffMs, long deadline, Promise<Types.Topic> promise) {
+        ac.describeTopics(Collections.singletonList(topicName))
+            .onComplete(described -> {
+                TopicDescription description = described.succeeded() ? described.result().get(topicName) : null;
+
+                if (description != null && description.getPartitions()
+                        .stream()
+                        .allMatch(partition -> partition.getLeader() != null && partition.getLeader().getId() >= 0)) {
+                    promise.complete(getTopicDesc(description));
+                } else if (System.currentTimeMillis() + backoffMs > deadline) {
+                    promise.fail(described.failed() ? described.cause() : new TimeoutException("Timed out waiting for partition leaders"));
+                } else {
+                    vertx.setTimer(backoffMs, timerId ->
+                        awaitLeaders(ac, vertx, topicName, Math.min(backoffMs * 2, LEADER_POLL_MAX_BACKOFF_MS), deadline, promise));
+                }
+            });
+    }
+
+    static <T> Future<T> toFuture(KafkaFuture<T> kafkaFuture) {
+        Promise<T> promise = Promise.promise();
+
+        kafkaFuture.whenComplete((result, error) -> {
+            if (error != null) {
+                promise.fail(error);
+            } else {
+                promise.complete(result);
             }
         });
 
+        return promise.future();
     }
 
-    public static void describeTopic(KafkaAdminClient ac, Promise prom, String topicToDescribe) {
-        Promise<Types.Topic> describeTopicConfigAndDescPromise = getTopicDescAndConf(ac, topicToDescribe);
+    public static void describeTopic(KafkaAdminClient ac, Promise prom, String topicToDescribe, HttpMetrics httpMetrics) {
+        Promise<Types.Topic> describeTopicConfigAndDescPromise = getTopicDescAndConf(ac, topicToDescribe, httpMetrics);
         describeTopicConfigAndDescPromise.future()
             .onComplete(description -> {
                 if (description.failed()) {
@@ -76,32 +213,29 @@ public class TopicOperations {
                 } else {
                     prom.complete(description.result());
                 }
-                ac.close();
             });
     }
 
-    private static Promise<Types.Topic> getTopicDescAndConf(KafkaAdminClient ac, String topicToDescribe) {
+    /**
+     * Describe the topic and obtain its configuration. The describeTopics and describeConfigs
+     * requests are sent concurrently, each timed as a separate stage.
+     */
+    @SuppressWarnings("rawtypes")
+    private static Promise<Types.Topic> getTopicDescAndConf(KafkaAdminClient ac, String topicToDescribe, HttpMetrics httpMetrics) {
         Promise<Types.Topic> result = Promise.promise();
-        Types.Topic tmp = new Types.Topic();
         ConfigResource resource = new ConfigResource(org.apache.kafka.common.config.ConfigResource.Type.TOPIC, topicToDescribe);
 
-        ac.describeTopics(Collections.singletonList(topicToDescribe))
-            .compose(topics -> {
-                io.vertx.kafka.admin.TopicDescription topicDesc = topics.get(topicToDescribe);
-                return Future.succeededFuture(getTopicDesc(topicDesc));
-            })
-            .compose(topic -> {
-                tmp.setName(topic.getName());
-                tmp.setIsInternal(topic.getIsInternal());
-                tmp.setPartitions(topic.getPartitions());
-                return Future.succeededFuture();
+        Future<Map<String, TopicDescription>> descriptions = httpMetrics.timeKafkaRequest("describe_topics",
+            () -> ac.describeTopics(Collections.singletonList(topicToDescribe)));
+        Future<Map<ConfigResource, Config>> configs = httpMetrics.timeKafkaRequest("describe_configs",
+            () -> ac.describeConfigs(Collections.singletonList(resource)));
+
+        CompositeFuture.all(descriptions, configs)
+            .map(nothing -> {
+                Types.Topic topic = getTopicDesc(descriptions.result().get(topicToDescribe));
+                topic.setConfig(getTopicConf(configs.result().get(resource)));
+                return topic;
             })
-            .compose(kkk -> ac.describeConfigs(Collections.singletonList(resource))
-            .compose(topics -> {
-                Config cfg = topics.get(resource);
-                tmp.setConfig(getTopicConf(cfg));
-                return Future.succeededFuture(tmp);
-            }))
             .onComplete(f -> {
                 if (f.succeeded()) {
                     result.complete(f.result());
@@ -112,85 +246,183 @@ public class TopicOperations {
         return result;
     }
 
-    public static void getTopicList(KafkaAdminClient ac, Promise prom, Pattern pattern, Types.PageRequest pageRequest, Types.OrderByInput orderByInput) {
-        Promise<Set<String>> describeTopicsNamesPromise = Promise.promise();
-        Promise<Map<String, io.vertx.kafka.admin.TopicDescription>> describeTopicsPromise = Promise.promise();
-        Promise<Map<ConfigResource, Config>> describeTopicConfigPromise = Promise.promise();
+    /**
+     * Obtain the named topics, using the cached entries from the {@link TopicCache} where
+     * available. For topics not present in the cache, only the requested data (the description
+     * including partitions and/or the configuration) is fetched using the given client, and
+     * added to the cache.
+     *
+     * @param ac Kafka client
+     * @param topicNames names of the topics to describe, all visible to the client's user
+     * @param topicCache cache of topic metadata for the client's credentials
+     * @param withDescription whether uncached topics must include the description
+     * @param withConfig whether uncached topics must include the configuration
+     * @return future list of topics, in no particular order
+     */
+    static Future<List<Types.Topic>> getTopics(KafkaAdminClient ac, List<String> topicNames, TopicCache.Scope topicCache, boolean withDescription, boolean withConfig) {
+        final long cacheGeneration = topicCache.generation();
+        final List<Types.Topic> topics = new ArrayList<>(topicNames.size());
 
-        List<ConfigResource> configResourceList = new ArrayList<>();
-        List<Types.Topic> fullDescription = new ArrayList<>();
+        topicNames.forEach(name -> {
+            Types.Topic topic = topicCache.get(name);
 
-        ac.listTopics(describeTopicsNamesPromise);
-        describeTopicsNamesPromise.future()
-            .compose(topics -> {
-                List<String> filteredList = topics.stream()
-                        .filter(topicName -> CommonHandler.byName(pattern, prom).test(topicName))
-                        .collect(Collectors.toList());
-                ac.describeTopics(filteredList, describeTopicsPromise);
-                return describeTopicsPromise.future();
-            }).compose(topics -> {
-                topics.entrySet().forEach(topicWithDescription -> {
-                    Types.Topic desc = getTopicDesc(topicWithDescription.getValue());
-                    fullDescription.add(desc);
-                    ConfigResource resource = new ConfigResource(org.apache.kafka.common.config.ConfigResource.Type.TOPIC, desc.getName());
-                    configResourceList.add(resource);
-                });
-                ac.describeConfigs(configResourceList, describeTopicConfigPromise);
-                return describeTopicConfigPromise.future();
-            }).compose(topicsConfigurations -> {
-                List<Types.Topic> fullTopicDescriptions = new ArrayList<>();
-                fullDescription.forEach(topicWithDescription -> {
-                    ConfigResource resource = new ConfigResource(org.apache.kafka.common.config.ConfigResource.Type.TOPIC, topicWithDescription.getName());
-                    Config cfg = topicsConfigurations.get(resource);
-                    topicWithDescription.setConfig(getTopicConf(cfg));
-                    fullTopicDescriptions.add(topicWithDescription);
-                });
+            if (topic == null) {
+                topic = new Types.Topic();
+                topic.setName(name);
+            }
 
-                if (Types.SortDirectionEnum.DESC.equals(orderByInput.getOrder())) {
-                    fullTopicDescriptions.sort(new CommonHandler.TopicComparator(orderByInput.getField()).reversed());
-                } else {
-                    fullTopicDescriptions.sort(new CommonHandler.TopicComparator(orderByInput.getField()));
-                }
+            topics.add(topic);
+        });
 
+        return fillTopics(ac, topics, withDescription, withConfig)
+            .map(filled -> {
+                filled.forEach(topic -> topicCache.put(topic, cacheGeneration));
+                return filled;
+            });
+    }
 
-                Types.TopicList topicList = new Types.TopicList();
-                List<Types.Topic> croppedList;
-                if (pageRequest.isDeprecatedFormat()) {
-                    // deprecated
-                    if (pageRequest.getOffset() > fullTopicDescriptions.size()) {
-                        return Future.failedFuture(new InvalidRequestException("Offset (" + pageRequest.getOffset() + ") cannot be greater than topic list size (" + fullTopicDescriptions.size() + ")"));
-                    }
-                    int tmpLimit = pageRequest.getLimit();
-                    if (tmpLimit == 0) {
-                        tmpLimit = fullTopicDescriptions.size();
+    /**
+     * Complete the given (possibly partial) topics by fetching the description and/or
+     * configuration for those topics that lack them. The fetched data is added to the cache.
+     *
+     * @param ac Kafka client
+     * @param topics topics to complete
+     * @param topicCache cache of topic metadata for the client's credentials
+     * @return future list of the complete topics, in the same order as given
+     */
+    static Future<List<Types.Topic>> completeTopics(KafkaAdminClient ac, List<Types.Topic> topics, TopicCache.Scope topicCache) {
+        final long cacheGeneration = topicCache.generation();
+        List<Types.Topic> partial = topics.stream()
+                .filter(topic -> topic.getPartitions() == null || topic.getConfig() == null)
+                .collect(Collectors.toList());
+
+        return fillTopics(ac, partial, true, true)
+            .map(filled -> {
+                filled.forEach(topic -> topicCache.put(topic, cacheGeneration));
+                return topics;
+            });
+    }
+
+    /**
+     * Fetch the description and/or configuration for each of the given topics that is missing
+     * it, setting the results on the topic in place. The describeTopics and describeConfigs
+     * requests are sent concurrently.
+     */
+    @SuppressWarnings("rawtypes")
+    private static Future<List<Types.Topic>> fillTopics(KafkaAdminClient ac, List<Types.Topic> topics, boolean withDescription, boolean withConfig) {
+        List<String> describeNames = withDescription ? topics.stream()
+                .filter(topic -> topic.getPartitions() == null)
+                .map(Types.Topic::getName)
+                .collect(Collectors.toList()) : Collections.emptyList();
+
+        List<ConfigResource> configResourceList = withConfig ? topics.stream()
+                .filter(topic -> topic.getConfig() == null)
+                .map(topic -> new ConfigResource(org.apache.kafka.common.config.ConfigResource.Type.TOPIC, topic.getName()))
+                .collect(Collectors.toList()) : Collections.emptyList();
+
+        Future<Map<String, TopicDescription>> descriptions;
+        Future<Map<ConfigResource, Config>> configs;
+
+        if (describeNames.isEmpty()) {
+            descriptions = Future.succeededFuture(Collections.emptyMap());
+        } else {
+            descriptions = ac.describeTopics(describeNames);
+        }
+
+        if (configResourceList.isEmpty()) {
+            configs = Future.succeededFuture(Collections.emptyMap());
+        } else {
+            configs = ac.describeConfigs(configResourceList);
+        }
+
+        return CompositeFuture.all(descriptions, configs)
+            .map(nothing -> {
+                topics.forEach(topic -> {
+                    TopicDescription description = descriptions.result().get(topic.getName());
+
+                    if (description != null) {
+                        Types.Topic described = getTopicDesc(description);
+                        topic.setIsInternal(described.getIsInternal());
+                        topic.setPartitions(described.getPartitions());
                     }
-                    croppedList = fullTopicDescriptions.subList(pageRequest.getOffset(), Math.min(pageRequest.getOffset() + tmpLimit, fullTopicDescriptions.size()));
-                    topicList.setOffset(pageRequest.getOffset());
-                    topicList.setLimit(pageRequest.getLimit());
-                    topicList.setCount(croppedList.size());
-                } else {
-                    if (fullTopicDescriptions.size() > 0 && (pageRequest.getPage() - 1) * pageRequest.getSize() >= fullTopicDescriptions.size()) {
-                        return Future.failedFuture(new InvalidRequestException("Requested pagination incorrect. Beginning of list greater than full list size (" + fullTopicDescriptions.size() + ")"));
+
+                    Config cfg = configs.result().get(new ConfigResource(org.apache.kafka.common.config.ConfigResource.Type.TOPIC, topic.getName()));
+
+                    if (cfg != null) {
+                        topic.setConfig(getTopicConf(cfg));
                     }
-                    croppedList = fullTopicDescriptions.subList((pageRequest.getPage() - 1) * pageRequest.getSize(), Math.min(pageRequest.getPage() * pageRequest.getSize(), fullTopicDescriptions.size()));
-                    topicList.setPage(pageRequest.getPage());
-                    topicList.setSize(pageRequest.getSize());
-                    topicList.setTotal(fullTopicDescriptions.size());
-                }
+                });
+                return topics;
+            });
+    }
 
-                topicList.setItems(croppedList);
+    public static void getTopicList(KafkaAdminClient ac, Promise prom, Pattern pattern, Types.PageRequest pageRequest, Types.OrderByInput orderByInput, TopicCache.Scope topicCache) {
+        Promise<Set<String>> describeTopicsNamesPromise = Promise.promise();
+        Types.TopicList topicList = new Types.TopicList();
+        final String sortKey = Objects.requireNonNullElse(orderByInput.getField(), "name");
 
-                return Future.succeededFuture(topicList);
-            }).onComplete(finalRes -> {
+        // Topic names visible to the user, cached metadata is only used for these topics
+        ac.listTopics(describeTopicsNamesPromise);
+        describeTopicsNamesPromise.future()
+            .map(topics -> topics.stream()
+                        .filter(topicName -> CommonHandler.byName(pattern, prom).test(topicName))
+                        .collect(Collectors.toList()))
+            // Fetch only the data needed to sort by the requested key (none for name)
+            .compose(filteredList -> getTopics(ac, filteredList, topicCache, DESCRIPTION_SORT_KEYS.contains(sortKey), CONFIG_SORT_KEYS.contains(sortKey)))
+            .compose(sortableTopics -> {
+                SortKeys.sortTopics(sortableTopics, sortKey, orderByInput.getOrder());
+                return page(sortableTopics, pageRequest, topicList);
+            })
+            // Fetch the remaining data for the topics in the requested page
+            .compose(pageTopics -> completeTopics(ac, pageTopics, topicCache))
+            .onComplete(finalRes -> {
                 if (finalRes.failed()) {
                     prom.fail(finalRes.cause());
                 } else {
-                    prom.complete(finalRes.result());
+                    topicList.setItems(finalRes.result());
+                    prom.complete(topicList);
                 }
-                ac.close();
             });
     }
 
+    /**
+     * Select the requested page from the sorted list and set the paging
+     * properties of the response accordingly.
+     *
+     * @param list the full, sorted list
+     * @param pageRequest the requested page
+     * @param topicList response to receive the paging properties
+     * @return future sub-list of the given list for the requested page
+     */
+    static <T> Future<List<T>> page(List<T> list, Types.PageRequest pageRequest, Types.TopicList topicList) {
+        List<T> croppedList;
+
+        if (pageRequest.isDeprecatedFormat()) {
+            // deprecated
+            if (pageRequest.getOffset() > list.size()) {
+                return Future.failedFuture(new InvalidRequestException("Offset (" + pageRequest.getOffset() + ") cannot be greater than topic list size (" + list.size() + ")"));
+            }
+            int tmpLimit = pageRequest.getLimit();
+            if (tmpLimit == 0) {
+                tmpLimit = list.size();
+            }
+            croppedList = list.subList(pageRequest.getOffset(), Math.min(pageRequest.getOffset() + tmpLimit, list.size()));
+            topicList.setOffset(pageRequest.getOffset());
+            topicList.setLimit(pageRequest.getLimit());
+            topicList.setCount(croppedList.size());
+        } else {
+            if (list.size() > 0 && (pageRequest.getPage() - 1) * pageRequest.getSize() >= list.size()) {
+                return Future.failedFuture(new InvalidRequestException("Requested pagination incorrect. Beginning of list greater than full list size (" + list.size() + ")"));
+            }
+            croppedList = list.subList((pageRequest.getPage() - 1) * pageRequest.getSize(), Math.min(pageRequest.getPage() * pageRequest.getSize(), list.size()));
+            topicList.setPage(pageRequest.getPage());
+            topicList.setSize(pageRequest.getSize());
+            topicList.setTotal(list.size());
+        }
+
+        return Future.succeededFuture(croppedList);
+    }
+
     public static void deleteTopics(KafkaAdminClient ac, List<String> topicsToDelete, Promise prom) {
         ac.deleteTopics(topicsToDelete, res -> {
             if (res.failed()) {
@@ -198,49 +430,102 @@ public class TopicOperations {
             } else {
                 prom.complete(topicsToDelete);
             }
-            ac.close();
         });
     }
 
-    public static void updateTopic(KafkaAdminClient ac, Types.UpdatedTopic topicToUpdate, Promise prom) {
-        List<ConfigEntry> ceList = new ArrayList<>();
-        if (topicToUpdate.getConfig() != null) {
-            topicToUpdate.getConfig().stream().forEach(cfgEntry -> {
-                ConfigEntry ce = new ConfigEntry(cfgEntry.getKey(), cfgEntry.getValue());
-                ceList.add(ce);
-            });
-        }
-        Config cfg = new Config(ceList);
-
-        ConfigResource resource = new ConfigResource(org.apache.kafka.common.config.ConfigResource.Type.TOPIC, topicToUpdate.getName());
+    /**
+     * Update the topic's partition count and/or configuration. Configuration entries are
+     * applied incrementally: entries with a value are set, entries without a value are
+     * reverted to their default, and all other entries are left unchanged. Partitions are
+     * added concurrently with the configuration update.
+     * <p>
+     * The response is built from the topic's state prior to the update with the changes
+     * applied (new partitions include only their IDs). The topic is described again after
+     * the update when <code>strict</code> is set or when an entry has been reverted to its
+     * (unknown) default value.
+     */
+    @SuppressWarnings("rawtypes")
+    public static void updateTopic(KafkaAdminClient ac, Admin admin, Types.UpdatedTopic topicToUpdate, boolean strict, Promise prom, HttpMetrics httpMetrics) {
+        final String topicName = topicToUpdate.getName();
+        final List<Types.NewTopicConfigEntry> configChanges = Objects.requireNonNullElse(topicToUpdate.getConfig(), Collections.emptyList());
+        final boolean reread = strict || configChanges.stream().anyMatch(entry -> entry.getValue() == null);
 
         // we have to describe first, otherwise we cannot determine whether the topic exists or not (alterConfigs returns just server error)
-        getTopicDescAndConf(ac, topicToUpdate.getName()).future()
+        getTopicDescAndConf(ac, topicName, httpMetrics).future()
                 .compose(topic -> {
-                    Promise<Void> updateTopicPartitions = Promise.promise();
-                    if (topicToUpdate.getNumPartitions() != null && topicToUpdate.getNumPartitions() != topic.getPartitions().size()) {
-                        ac.createPartitions(Collections.singletonMap(topic.getName(), new NewPartitions(topicToUpdate.getNumPartitions(), null)), updateTopicPartitions);
+                    final int currentPartitions = topic.getPartitions().size();
+                    Future<Void> updateTopicPartitions;
+                    Future<Void> updateTopicConfig;
+
+                    if (topicToUpdate.getNumPartitions() != null && topicToUpdate.getNumPartitions() != currentPartitions) {
+                        updateTopicPartitions = httpMetrics.timeKafkaRequest("create_partitions", () ->
+                            ac.createPartitions(Collections.singletonMap(topicName, new NewPartitions(topicToUpdate.getNumPartitions(), null))));
                     } else {
-                        updateTopicPartitions.complete();
+                        updateTopicPartitions = Future.succeededFuture();
                     }
-                    return updateTopicPartitions.future();
-                })
-                .compose(i -> {
-                    Promise<Void> updateTopicConfigPromise = Promise.promise();
-                    ac.alterConfigs(Collections.singletonMap(resource, cfg), updateTopicConfigPromise);
-                    return updateTopicConfigPromise.future();
+
+                    if (configChanges.isEmpty()) {
+                        updateTopicConfig = Future.succeededFuture();
+                    } else {
+                        updateTopicConfig = httpMetrics.timeKafkaRequest("incremental_alter_configs", () ->
+                            toFuture(admin.incrementalAlterConfigs(Collections.singletonMap(
+                                new org.apache.kafka.common.config.ConfigResource(org.apache.kafka.common.config.ConfigResource.Type.TOPIC, topicName),
+                                configChanges.stream().map(TopicOperations::toAlterConfigOp).collect(Collectors.toList())))
+                                .all()));
+                    }
+
+                    return CompositeFuture.all(updateTopicPartitions, updateTopicConfig)
+                        .map(nothing -> applyUpdate(topic, topicToUpdate.getNumPartitions(), configChanges));
                 })
-                .compose(update -> getTopicDescAndConf(ac, topicToUpdate.getName()).future())
+                .compose(topic -> reread ? getTopicDescAndConf(ac, topicName, httpMetrics).future() : Future.succeededFuture(topic))
                 .onComplete(desc -> {
                     if (desc.failed()) {
                         prom.fail(desc.cause());
                     } else {
                         prom.complete(desc.result());
                     }
-                    ac.close();
                 });
     }
 
+    private static AlterConfigOp toAlterConfigOp(Types.NewTopicConfigEntry entry) {
+        org.apache.kafka.clients.admin.ConfigEntry configEntry = new org.apache.kafka.clients.admin.ConfigEntry(entry.getKey(), entry.getValue());
+        return new AlterConfigOp(configEntry, entry.getValue() != null ? AlterConfigOp.OpType.SET : AlterConfigOp.OpType.DELETE);
+    }
+
+    /**
+     * Apply the requested partition count and configuration values to the topic as described
+     * prior to the update.
+     */
+    static Types.Topic applyUpdate(Types.Topic topic, Integer numPartitions, List<Types.NewTopicConfigEntry> configChanges) {
+        if (numPartitions != null) {
+            List<Types.Partition> partitions = new ArrayList<>(topic.getPartitions());
+
+            for (int i = partitions.size(); i < numPartitions; i++) {
+                Types.Partition partition = new Types.Partition();
+                partition.setPartition(i);
+                partitions.add(partition);
+            }
+
+            topic.setPartitions(partitions);
+        }
+
+        if (!configChanges.isEmpty()) {
+            Map<String, Types.ConfigEntry> config = new LinkedHashMap<>();
+            topic.getConfig().forEach(entry -> config.put(entry.getKey(), entry));
+
+            configChanges.forEach(change -> {
+                Types.ConfigEntry entry = new Types.ConfigEntry();
+                entry.setKey(change.getKey());
+                entry.setValue(change.getValue());
+                config.put(change.getKey(), entry);
+            });
+
+            topic.setConfig(new ArrayList<>(config.values()));
+        }
+
+        return topic;
+    }
+
     private static List<Types.ConfigEntry> getTopicConf(Config cfg) {
         List<ConfigEntry> entries = cfg.getEntries();
         List<Types.ConfigEntry> topicConfigEntries = new ArrayList<>();
@@ -8,7 +8,6 @@ import io.netty.handler.codec.http.HttpResponseStatus;
 import io.strimzi.kafka.oauth.validator.TokenExpiredException;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
-import io.vertx.core.Vertx;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
@@ -37,16 +36,18 @@ import org.apache.kafka.common.errors.UnknownMemberIdException;
 import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bf2.admin.kafka.admin.AdminClientPool;
 import org.bf2.admin.kafka.admin.HttpMetrics;
 import org.bf2.admin.kafka.admin.InvalidConsumerGroupException;
 import org.bf2.admin.kafka.admin.InvalidTopicException;
 import org.bf2.admin.kafka.admin.KafkaAdminConfigRetriever;
 import org.bf2.admin.kafka.admin.model.Types;
 
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.Map;
-import java.util.Properties;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -57,6 +58,8 @@ public class CommonHandler {
 
     protected static final Logger log = LogManager.getLogger(CommonHandler.class);
     protected static final String ADMIN_CLIENT_CONFIG = RestOperations.class.getName() + ".ADMIN_CLIENT_CONFIG";
+    protected static final String ADMIN_CLIENT_EXPIRY = RestOperations.class.getName() + ".ADMIN_CLIENT_EXPIRY";
+    protected static final String ADMIN_CLIENT_FAILED = RestOperations.class.getName() + ".ADMIN_CLIENT_FAILED";
     private static final String SASL_PLAIN_CONFIG_TEMPLATE = "org.apache.kafka.common.security.plain.PlainLoginModule "
             + "required "
             + "username=\"%s\" "
@@ -64,9 +67,11 @@ public class CommonHandler {
     private static final String SASL_OAUTH_CONFIG_TEMPLATE = "org.apache.kafka.common.security.oauthbearer.OAuthBearerLoginModule required oauth.access.token=\"%s\";";
 
     protected final KafkaAdminConfigRetriever kaConfig;
+    protected final AdminClientPool clientPool;
 
-    protected CommonHandler(KafkaAdminConfigRetriever config) {
+    protected CommonHandler(KafkaAdminConfigRetriever config, AdminClientPool clientPool) {
         this.kaConfig = config;
+        this.clientPool = clientPool;
     }
 
     /**
@@ -76,16 +81,19 @@ public class CommonHandler {
      * the authenticated user principal present in the context (created by Vert.x
      * handler when a valid JWT was presented by the client). The configuration property
      * map will be placed in the context under the key identified by the
-     * {@link #ADMIN_CLIENT_CONFIG} constant.
+     * {@link #ADMIN_CLIENT_CONFIG} constant. The time at which the credentials expire
+     * is placed in the context under the key identified by {@link #ADMIN_CLIENT_EXPIRY}.
      *
      * @param context
      */
     public void setAdminClientConfig(RoutingContext context) {
         Map<String, Object> acConfig = kaConfig.getAcConfig();
+        long expiresAt = AdminClientPool.NO_EXPIRY;
 
         if (kaConfig.isOauthEnabled()) {
             final String accessToken = context.user().principal().getString("access_token");
             acConfig.put(SaslConfigs.SASL_JAAS_CONFIG, String.format(SASL_OAUTH_CONFIG_TEMPLATE, accessToken));
+            expiresAt = tokenExpiry(accessToken);
         } else if (kaConfig.isBasicEnabled()) {
             final JsonObject principal = context.user().principal();
             acConfig.put(SaslConfigs.SASL_JAAS_CONFIG,
@@ -97,25 +105,88 @@ public class CommonHandler {
         }
 
         context.put(ADMIN_CLIENT_CONFIG, acConfig);
+        context.put(ADMIN_CLIENT_EXPIRY, expiresAt);
     }
 
-    protected static Future<KafkaAdminClient> createAdminClient(Vertx vertx, Map<String, Object> acConfig) {
-        Properties props = new Properties();
-        props.putAll(acConfig);
-
-        KafkaAdminClient adminClient = null;
+    /**
+     * Obtain the expiration time of a JWT access token from its <code>exp</code> claim.
+     *
+     * @param accessToken the JWT
+     * @return expiration time in epoch milliseconds or {@link AdminClientPool#NO_EXPIRY} when
+     *         the token does not carry an expiration
+     */
+    static long tokenExpiry(String accessToken) {
         try {
-            adminClient = KafkaAdminClient.create(vertx, props);
-            return Future.succeededFuture(adminClient);
-        } catch (Exception e) {
-            log.error("Failed to create Kafka AdminClient", e.getCause());
-            if (adminClient != null) {
-                adminClient.close();
-            }
-            return Future.failedFuture(new KafkaException(e.getCause().getMessage()));
+            String[] parts = accessToken.split("\\.");
+            JsonObject claims = new JsonObject(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+            Long exp = claims.getLong("exp");
+            return exp != null ? exp * 1000 : AdminClientPool.NO_EXPIRY;
+        } catch (RuntimeException e) {
+            // Token has already been validated, the broker will reject it if not usable
+            log.debug("Unable to read expiration from access token: {}", e.getMessage());
+            return AdminClientPool.NO_EXPIRY;
         }
     }
 
+    /**
+     * Obtain a lease on a Kafka Admin client for the credentials of the current request
+     * from the client pool. The client is created on a worker thread when not already
+     * pooled and is returned to the pool when the response has ended, or as soon as it
+     * has been obtained when the response ended first (e.g. the client disconnected).
+     * Clients that were rejected by the broker as unauthenticated or that encountered an
+     * error from which they can not recover (see {@link AdminClientPool#isFatalClientError(Throwable)})
+     * are removed from the pool.
+     *
+     * @param context the current request's routing context
+     * @return future lease on a pooled client
+     */
+    protected Future<AdminClientPool.Lease> acquireAdminClient(RoutingContext context) {
+        Map<String, Object> acConfig = context.get(ADMIN_CLIENT_CONFIG);
+        long expiresAt = context.get(ADMIN_CLIENT_EXPIRY);
+        Future<AdminClientPool.Lease> acquired = clientPool.acquire(acConfig, expiresAt);
+
+        context.addEndHandler(ended -> acquired.onSuccess(lease -> {
+            if (context.response().getStatusCode() == HttpResponseStatus.UNAUTHORIZED.code()
+                    || Boolean.TRUE.equals(context.get(ADMIN_CLIENT_FAILED))) {
+                lease.invalidate();
+            } else {
+                lease.release();
+            }
+        }));
+
+        return acquired.recover(error -> {
+            log.error("Failed to create Kafka AdminClient", error.getCause());
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            return Future.failedFuture(new KafkaException(cause.getMessage()));
+        });
+    }
+
+    /**
+     * Obtain a key identifying the credentials used by the current request's Kafka Admin
+     * client, for use with state that must not be shared between users.
+     *
+     * The key is the same digest of the client configuration used to pool the client, so the
+     * credentials themselves are not retained.
+     *
+     * @param context the current request's routing context
+     * @return key identifying the request's credentials
+     */
+    protected String credentialsKey(RoutingContext context) {
+        Map<String, Object> acConfig = context.get(ADMIN_CLIENT_CONFIG);
+        return AdminClientPool.hash(acConfig);
+    }
+
+    /**
+     * Obtain the Vert.x Kafka Admin client for the current request.
+     *
+     * @param context the current request's routing context
+     * @return future Vert.x Kafka Admin client
+     * @see #acquireAdminClient(RoutingContext)
+     */
+    protected Future<KafkaAdminClient> createAdminClient(RoutingContext context) {
+        return acquireAdminClient(context).map(AdminClientPool.Lease::client);
+    }
+
     protected static <T> void processResponse(Promise<T> prom, RoutingContext routingContext, HttpResponseStatus successResponseStatus, HttpMetrics httpMetrics, Timer timer, Timer.Sample requestTimerSample) {
         prom.future().onComplete(res -> {
             if (res.failed()) {
@@ -249,6 +320,10 @@ public class CommonHandler {
             status = HttpResponseStatus.INTERNAL_SERVER_ERROR;
         }
 
+        if (AdminClientPool.isFatalClientError(failureCause)) {
+            routingContext.put(ADMIN_CLIENT_FAILED, Boolean.TRUE);
+        }
+
         errorResponse(failureCause, status, routingContext, httpMetrics, timer, requestTimerSample);
 
         log.error("{} {}", failureCause.getClass(), failureCause.getMessage());
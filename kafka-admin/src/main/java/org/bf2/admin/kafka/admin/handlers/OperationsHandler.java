@@ -8,10 +8,13 @@ public interface OperationsHandler {
     void updateTopic(RoutingContext routingContext);
     void deleteTopic(RoutingContext routingContext);
     void listTopics(RoutingContext routingContext);
+    void getTopicConsumerLag(RoutingContext routingContext);
     void listGroups(RoutingContext routingContext);
     void describeGroup(RoutingContext routingContext);
     void deleteGroup(RoutingContext routingContext);
     void resetGroupOffset(RoutingContext routingContext);
+    void getGroupLagHistory(RoutingContext routingContext);
+    void exportGroupOffsets(RoutingContext routingContext);
 
     void getAclResourceOperations(RoutingContext routingContext);
     void describeAcls(RoutingContext routingContext);
@@ -4,18 +4,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Timer;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Promise;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.RoutingContext;
-import io.vertx.kafka.admin.KafkaAdminClient;
-import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.common.ConsumerGroupState;
 import org.apache.kafka.common.errors.InvalidRequestException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.bf2.admin.kafka.admin.AccessControlOperations;
+import org.bf2.admin.kafka.admin.AdminClientPool;
+import org.bf2.admin.kafka.admin.ConsumerGroupExport;
+import org.bf2.admin.kafka.admin.ConsumerGroupLagHistory;
 import org.bf2.admin.kafka.admin.ConsumerGroupOperations;
+import org.bf2.admin.kafka.admin.ConsumerGroupTopicIndex;
 import org.bf2.admin.kafka.admin.HttpMetrics;
 import org.bf2.admin.kafka.admin.InvalidConsumerGroupException;
 import org.bf2.admin.kafka.admin.InvalidTopicException;
 import org.bf2.admin.kafka.admin.KafkaAdminConfigRetriever;
+import org.bf2.admin.kafka.admin.LogEndOffsetCache;
+import org.bf2.admin.kafka.admin.TopicCache;
+import org.bf2.admin.kafka.admin.TopicConsumerLagOperations;
 import org.bf2.admin.kafka.admin.TopicOperations;
 import org.bf2.admin.kafka.admin.model.Types;
 import org.bf2.admin.kafka.admin.model.Types.PagedResponse;
@@ -23,8 +31,10 @@ import org.bf2.admin.kafka.admin.model.Types.TopicPartitionResetResult;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 public class RestOperations extends CommonHandler implements OperationsHandler {
@@ -39,31 +49,69 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     private static final Pattern MATCH_ALL = Pattern.compile(".*");
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
     private final HttpMetrics httpMetrics;
     private final AccessControlOperations aclOperations;
+    private final TopicCache topicCache;
+    private final LogEndOffsetCache offsetCache;
+    private final ConsumerGroupLagHistory lagHistory;
+    private final ConsumerGroupTopicIndex groupIndex;
+    private final ConsumerGroupExport groupExport;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public RestOperations(KafkaAdminConfigRetriever config, HttpMetrics httpMetrics) {
-        super(config);
+    public RestOperations(KafkaAdminConfigRetriever config, AdminClientPool clientPool, HttpMetrics httpMetrics, LogEndOffsetCache offsetCache, ConsumerGroupLagHistory lagHistory) {
+        super(config, clientPool);
         this.httpMetrics = httpMetrics;
         this.aclOperations = new AccessControlOperations(config);
+        this.topicCache = new TopicCache(config);
+        this.offsetCache = offsetCache;
+        this.lagHistory = lagHistory;
+        this.groupIndex = new ConsumerGroupTopicIndex(config);
+        this.groupExport = new ConsumerGroupExport(config, offsetCache, lagHistory, httpMetrics);
     }
     /* test */
     RestOperations() {
-        super(null);
+        super(null, null);
         this.httpMetrics = null;
         this.aclOperations = null;
+        this.topicCache = null;
+        this.offsetCache = null;
+        this.lagHistory = null;
+        this.groupIndex = null;
+        this.groupExport = null;
+    }
+    /* test */
+    RestOperations(AdminClientPool clientPool, HttpMetrics httpMetrics, AccessControlOperations aclOperations) {
+        super(null, clientPool);
+        this.httpMetrics = httpMetrics;
+        this.aclOperations = aclOperations;
+        this.topicCache = null;
+        this.offsetCache = null;
+        this.lagHistory = null;
+        this.groupIndex = null;
+        this.groupExport = null;
+    }
+    /* test */
+    RestOperations(AdminClientPool clientPool, HttpMetrics httpMetrics, ConsumerGroupExport groupExport) {
+        super(null, clientPool);
+        this.httpMetrics = httpMetrics;
+        this.aclOperations = null;
+        this.topicCache = null;
+        this.offsetCache = null;
+        this.lagHistory = null;
+        this.groupIndex = new ConsumerGroupTopicIndex(0);
+        this.groupExport = groupExport;
     }
 
     @Override
     public void createTopic(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getCreateTopicCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer timer = httpMetrics.getCreateTopicRequestTimer();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
+        acquireAdminClient(routingContext).onComplete(lease -> {
             Types.NewTopic inputTopic;
             Promise<Types.NewTopic> prom = Promise.promise();
 
@@ -86,10 +134,12 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
                 return;
             }
 
-            if (ac.failed()) {
-                prom.fail(ac.cause());
+            if (lease.failed()) {
+                prom.fail(lease.cause());
             } else {
-                TopicOperations.createTopic(ac.result(), prom, inputTopic);
+                boolean waitForLeaders = Boolean.parseBoolean(routingContext.queryParams().get("waitForLeaders"));
+                prom.future().onSuccess(created -> topicCache.invalidate(inputTopic.getName()));
+                TopicOperations.createTopic(lease.result().client(), lease.result().admin(), routingContext.vertx(), prom, inputTopic, waitForLeaders, httpMetrics);
             }
             processResponse(prom, routingContext, HttpResponseStatus.CREATED, httpMetrics, timer, requestTimerSample);
         });
@@ -97,7 +147,6 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void describeTopic(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getDescribeTopicCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
@@ -111,11 +160,36 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
             return;
         }
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
+        createAdminClient(routingContext).onComplete(ac -> {
             if (ac.failed()) {
                 prom.fail(ac.cause());
             } else {
-                TopicOperations.describeTopic(ac.result(), prom, topicToDescribe);
+                TopicOperations.describeTopic(ac.result(), prom, topicToDescribe, httpMetrics);
+            }
+            processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
+        });
+    }
+
+    @Override
+    public void getTopicConsumerLag(RoutingContext routingContext) {
+        httpMetrics.getGetTopicConsumerLagCounter().increment();
+        httpMetrics.getRequestsCounter().increment();
+        Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
+        Timer timer = httpMetrics.getGetTopicConsumerLagRequestTimer();
+
+        String topicName = routingContext.pathParam("topicName");
+        Promise<Types.TopicConsumerLag> prom = Promise.promise();
+        if (topicName == null || topicName.isEmpty()) {
+            prom.fail(new InvalidTopicException("Topic to describe has not been specified."));
+            processResponse(prom, routingContext, HttpResponseStatus.BAD_REQUEST, httpMetrics, timer, requestTimerSample);
+            return;
+        }
+
+        createAdminClient(routingContext).onComplete(ac -> {
+            if (ac.failed()) {
+                prom.fail(ac.cause());
+            } else {
+                TopicConsumerLagOperations.getTopicConsumerLag(ac.result(), prom, topicName, kaConfig, offsetCache, lagHistory, groupIndex.scope(credentialsKey(routingContext)), httpMetrics);
             }
             processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
         });
@@ -123,7 +197,6 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void updateTopic(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getUpdateTopicCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer timer = httpMetrics.getUpdateTopicRequestTimer();
@@ -137,9 +210,9 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
             return;
         }
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
-            if (ac.failed()) {
-                prom.fail(ac.cause());
+        acquireAdminClient(routingContext).onComplete(lease -> {
+            if (lease.failed()) {
+                prom.fail(lease.cause());
             } else {
                 Types.UpdatedTopic updatedTopic;
 
@@ -162,7 +235,10 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
                     processResponse(prom, routingContext, HttpResponseStatus.BAD_REQUEST, httpMetrics, timer, requestTimerSample);
                     return;
                 }
-                TopicOperations.updateTopic(ac.result(), updatedTopic, prom);
+                // Partitions may have been added even when the config update fails
+                prom.future().onComplete(updated -> topicCache.invalidate(topicToUpdate));
+                boolean strict = Boolean.parseBoolean(routingContext.queryParams().get("strict"));
+                TopicOperations.updateTopic(lease.result().client(), lease.result().admin(), updatedTopic, strict, prom, httpMetrics);
             }
             processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
         });
@@ -171,7 +247,6 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void deleteTopic(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getDeleteTopicCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
@@ -185,10 +260,11 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
             return;
         }
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
+        createAdminClient(routingContext).onComplete(ac -> {
             if (ac.failed()) {
                 prom.fail(ac.cause());
             } else {
+                prom.future().onSuccess(deleted -> topicCache.invalidate(topicToDelete));
                 TopicOperations.deleteTopics(ac.result(), Collections.singletonList(topicToDelete), prom);
             }
             processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
@@ -197,7 +273,6 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void listTopics(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
         Timer timer = httpMetrics.getListTopicRequestTimer();
         httpMetrics.getListTopicsCounter().increment();
@@ -212,12 +287,12 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
             pattern = null;
         }
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
+        createAdminClient(routingContext).onComplete(ac -> {
             if (ac.failed()) {
                 prom.fail(ac.cause());
             } else {
                 try {
-                    TopicOperations.getTopicList(ac.result(), prom, pattern, parsePageRequest(routingContext), orderBy);
+                    TopicOperations.getTopicList(ac.result(), prom, pattern, parsePageRequest(routingContext), orderBy, topicCache.scope(credentialsKey(routingContext)));
                 } catch (NumberFormatException | InvalidRequestException e) {
                     prom.fail(e);
                     processResponse(prom, routingContext, HttpResponseStatus.BAD_REQUEST, httpMetrics, timer, requestTimerSample);
@@ -251,7 +326,6 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void listGroups(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
         Timer timer = httpMetrics.getListGroupsRequestTimer();
         httpMetrics.getListGroupsCounter().increment();
@@ -266,13 +340,15 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
         Promise<PagedResponse<Types.ConsumerGroupDescription>> prom = Promise.promise();
         final Pattern topicPattern = filterPattern(topicFilter);
         final Pattern groupPattern = filterPattern(consumerGroupIdFilter);
+        final boolean summary = "summary".equals(routingContext.queryParams().get("view"));
+        final boolean timeLag = Boolean.parseBoolean(routingContext.queryParams().get("timeLag"));
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
-            if (ac.failed()) {
-                prom.fail(ac.cause());
+        acquireAdminClient(routingContext).onComplete(lease -> {
+            if (lease.failed()) {
+                prom.fail(lease.cause());
             } else {
                 try {
-                    ConsumerGroupOperations.getGroupList(ac.result(), prom, topicPattern, groupPattern, parsePageRequest(routingContext), orderBy);
+                    ConsumerGroupOperations.getGroupList(lease.result().client(), lease.result().admin(), prom, topicPattern, groupPattern, parseGroupStates(routingContext.queryParam("state")), parsePageRequest(routingContext), orderBy, summary, timeLag, kaConfig, offsetCache, lagHistory, groupIndex.scope(credentialsKey(routingContext)), httpMetrics);
                 } catch (NumberFormatException | InvalidRequestException e) {
                     prom.fail(e);
                     processResponse(prom, routingContext, HttpResponseStatus.BAD_REQUEST, httpMetrics, timer, requestTimerSample);
@@ -283,9 +359,31 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
         });
     }
 
+    /**
+     * Parse the comma-separated consumer group states of the <code>state</code> query parameter.
+     * An empty set is returned when the parameter is not present, matching groups in any state.
+     */
+    static Set<ConsumerGroupState> parseGroupStates(List<String> params) {
+        Set<ConsumerGroupState> states = EnumSet.noneOf(ConsumerGroupState.class);
+
+        for (String param : params) {
+            for (String state : param.split(",")) {
+                if (state.isBlank()) {
+                    continue;
+                }
+                try {
+                    states.add(ConsumerGroupState.valueOf(state.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidRequestException("Invalid consumer group state: " + state.trim());
+                }
+            }
+        }
+
+        return states;
+    }
+
     @Override
     public void describeGroup(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getDescribeGroupCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
@@ -293,6 +391,7 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
         String groupToDescribe = routingContext.pathParam("consumerGroupId");
         int partitionFilter = routingContext.queryParams().get("partitionFilter") == null ? -1 : Integer.parseInt(routingContext.queryParams().get("partitionFilter"));
         Types.OrderByInput orderBy = getOrderByInput(routingContext);
+        boolean timeLag = Boolean.parseBoolean(routingContext.queryParams().get("timeLag"));
 
         Promise<Types.ConsumerGroupDescription> prom = Promise.promise();
 
@@ -301,11 +400,11 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
             processResponse(prom, routingContext, HttpResponseStatus.BAD_REQUEST, httpMetrics, timer, requestTimerSample);
             return;
         }
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
+        createAdminClient(routingContext).onComplete(ac -> {
             if (ac.failed()) {
                 prom.fail(ac.cause());
             } else {
-                ConsumerGroupOperations.describeGroup(ac.result(), prom, groupToDescribe, orderBy, partitionFilter);
+                ConsumerGroupOperations.describeGroup(ac.result(), prom, groupToDescribe, orderBy, partitionFilter, timeLag, kaConfig, offsetCache, lagHistory, groupIndex.scope(credentialsKey(routingContext)), httpMetrics);
             }
             processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
         });
@@ -313,7 +412,6 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void deleteGroup(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getDeleteGroupCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
@@ -327,10 +425,14 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
             return;
         }
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
+        createAdminClient(routingContext).onComplete(ac -> {
             if (ac.failed()) {
                 prom.fail(ac.cause());
             } else {
+                prom.future().onSuccess(deleted -> {
+                    groupIndex.remove(groupToDelete);
+                    lagHistory.remove(groupToDelete);
+                });
                 ConsumerGroupOperations.deleteGroup(ac.result(), Collections.singletonList(groupToDelete), prom);
             }
             processResponse(prom, routingContext, HttpResponseStatus.NO_CONTENT, httpMetrics, timer, requestTimerSample);
@@ -339,7 +441,6 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void resetGroupOffset(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getResetGroupOffsetCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer timer = httpMetrics.getResetGroupOffsetRequestTimer();
@@ -354,7 +455,7 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
             return;
         }
 
-        createAdminClient(routingContext.vertx(), acConfig).onComplete(ac -> {
+        createAdminClient(routingContext).onComplete(ac -> {
             if (ac.failed()) {
                 prom.fail(ac.cause());
             } else {
@@ -370,12 +471,86 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
                 }
 
                 parameters.setGroupId(groupToReset);
+                prom.future().onComplete(reset -> {
+                    groupIndex.remove(groupToReset);
+                    // Committed offsets no longer follow on from the recorded samples
+                    lagHistory.remove(groupToReset);
+                });
                 ConsumerGroupOperations.resetGroupOffset(ac.result(), parameters, prom);
             }
             processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
         });
     }
 
+    @Override
+    public void getGroupLagHistory(RoutingContext routingContext) {
+        httpMetrics.getGetGroupLagHistoryCounter().increment();
+        httpMetrics.getRequestsCounter().increment();
+        Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
+        Timer timer = httpMetrics.getGetGroupLagHistoryRequestTimer();
+        String groupId = routingContext.pathParam("consumerGroupId");
+
+        Promise<Types.ConsumerGroupLagHistory> prom = Promise.promise();
+
+        if (groupId == null || groupId.isEmpty()) {
+            prom.fail(new InvalidConsumerGroupException("ConsumerGroup to describe has not been specified."));
+            processResponse(prom, routingContext, HttpResponseStatus.BAD_REQUEST, httpMetrics, timer, requestTimerSample);
+            return;
+        }
+        createAdminClient(routingContext).onComplete(ac -> {
+            if (ac.failed()) {
+                prom.fail(ac.cause());
+            } else {
+                ConsumerGroupOperations.getGroupLagHistory(ac.result(), prom, groupId, lagHistory);
+            }
+            processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
+        });
+    }
+
+    @Override
+    public void exportGroupOffsets(RoutingContext routingContext) {
+        httpMetrics.getExportGroupOffsetsCounter().increment();
+        httpMetrics.getRequestsCounter().increment();
+        Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
+        Timer timer = httpMetrics.getExportGroupOffsetsRequestTimer();
+        final Pattern groupPattern = filterPattern(routingContext.queryParams().get("group-id-filter"));
+        HttpServerResponse response = routingContext.response();
+
+        Promise<Void> prom = Promise.promise();
+
+        createAdminClient(routingContext).onComplete(ac -> {
+            if (ac.failed()) {
+                prom.fail(ac.cause());
+            } else {
+                groupExport.exportGroupOffsets(ac.result(), groupPattern,
+                    () -> response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, NDJSON_CONTENT_TYPE),
+                    groupIndex.scope(credentialsKey(routingContext)))
+                    .onComplete(prom);
+            }
+
+            prom.future().onComplete(exported -> {
+                if (exported.failed() && !response.headWritten()) {
+                    // Nothing sent yet, respond with the error as usual
+                    processResponse(prom, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
+                } else if (exported.succeeded()) {
+                    // The status was sent with the first lines (if any), only the end of the body remains
+                    if (!response.headWritten()) {
+                        response.putHeader(HttpHeaders.CONTENT_TYPE, NDJSON_CONTENT_TYPE);
+                    }
+                    response.end();
+                    httpMetrics.getSucceededRequestsCounter().increment();
+                    requestTimerSample.stop(timer);
+                } else {
+                    // Part of the export has already been sent, end the response without completing it
+                    log.error("Consumer group offset export failed: {}", exported.cause().getMessage());
+                    response.reset();
+                    httpMetrics.getFailedRequestsCounter(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).increment();
+                    requestTimerSample.stop(timer);
+                }
+            });
+        });
+    }
+
     @Override
     public void getAclResourceOperations(RoutingContext routingContext) {
         httpMetrics.getGetAclResourceOperationsCounter().increment();
@@ -389,74 +564,80 @@ public class RestOperations extends CommonHandler implements OperationsHandler {
 
     @Override
     public void describeAcls(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getDescribeAclsCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer timer = httpMetrics.getDescribeAclsRequestTimer();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
         Promise<PagedResponse<Types.AclBinding>> promise = Promise.promise();
-        AdminClient client = AdminClient.create(acConfig);
-
-        try {
-            var filter = Types.AclBinding.fromQueryParams(routingContext.queryParams());
-            aclOperations.getAcls(client, promise, filter, parsePageRequest(routingContext), getOrderByInput(routingContext, Types.AclBinding.DEFAULT_ORDER));
-        } catch (Exception e) {
-            promise.fail(e);
-        } finally {
-            // Use the Vertx client wrapper to close on worker thread
-            KafkaAdminClient.create(routingContext.vertx(), client).close();
-        }
 
-        processResponse(promise, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
+        acquireAdminClient(routingContext).onComplete(lease -> {
+            if (lease.failed()) {
+                promise.fail(lease.cause());
+            } else {
+                try {
+                    var filter = Types.AclBinding.fromQueryParams(routingContext.queryParams());
+                    aclOperations.getAcls(lease.result().admin(), promise, filter, parsePageRequest(routingContext), getOrderByInput(routingContext, Types.AclBinding.DEFAULT_ORDER));
+                } catch (Exception e) {
+                    promise.fail(e);
+                }
+            }
+            processResponse(promise, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
+        });
     }
 
     @Override
     public void createAcl(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getCreateAclsCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer timer = httpMetrics.getCreateAclsRequestTimer();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
-        AdminClient client = AdminClient.create(acConfig);
+        Types.AclBinding binding;
 
         try {
-            Types.AclBinding binding =
-                    mapper.readValue(routingContext.getBody().getBytes(), AccessControlOperations.TYPEREF_ACL_BINDING);
-            Promise<Void> promise = Promise.promise();
-            aclOperations.createAcl(client, promise, binding);
-            processResponse(promise, routingContext, HttpResponseStatus.CREATED, httpMetrics, timer, requestTimerSample);
+            binding = mapper.readValue(routingContext.getBody().getBytes(), AccessControlOperations.TYPEREF_ACL_BINDING);
         } catch (IOException e) {
             errorResponse(e, HttpResponseStatus.BAD_REQUEST, routingContext, httpMetrics, timer, requestTimerSample);
             log.error(e);
-        } catch (Exception e) {
-            processFailure(e, routingContext, httpMetrics, timer, requestTimerSample);
-        } finally {
-            // Use the Vertx client wrapper to close on worker thread
-            KafkaAdminClient.create(routingContext.vertx(), client).close();
+            return;
         }
+
+        Promise<Void> promise = Promise.promise();
+
+        acquireAdminClient(routingContext).onComplete(lease -> {
+            if (lease.failed()) {
+                promise.fail(lease.cause());
+            } else {
+                try {
+                    aclOperations.createAcl(lease.result().admin(), promise, binding);
+                } catch (Exception e) {
+                    promise.fail(e);
+                }
+            }
+            processResponse(promise, routingContext, HttpResponseStatus.CREATED, httpMetrics, timer, requestTimerSample);
+        });
     }
 
     @Override
     public void deleteAcls(RoutingContext routingContext) {
-        Map<String, Object> acConfig = routingContext.get(ADMIN_CLIENT_CONFIG);
         httpMetrics.getDeleteAclsCounter().increment();
         httpMetrics.getRequestsCounter().increment();
         Timer.Sample requestTimerSample = Timer.start(httpMetrics.getRegistry());
         Timer timer = httpMetrics.getDeleteAclsRequestTimer();
         Promise<PagedResponse<Types.AclBinding>> promise = Promise.promise();
-        AdminClient client = AdminClient.create(acConfig);
-
-        try {
-            var filter = Types.AclBinding.fromQueryParams(routingContext.queryParams());
-            aclOperations.deleteAcls(client, promise, filter);
-        } catch (Exception e) {
-            promise.fail(e);
-        } finally {
-            // Use the Vertx client wrapper to close on worker thread
-            KafkaAdminClient.create(routingContext.vertx(), client).close();
-        }
 
-        processResponse(promise, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
+        acquireAdminClient(routingContext).onComplete(lease -> {
+            if (lease.failed()) {
+                promise.fail(lease.cause());
+            } else {
+                try {
+                    var filter = Types.AclBinding.fromQueryParams(routingContext.queryParams());
+                    aclOperations.deleteAcls(lease.result().admin(), promise, filter);
+                } catch (Exception e) {
+                    promise.fail(e);
+                }
+            }
+            processResponse(promise, routingContext, HttpResponseStatus.OK, httpMetrics, timer, requestTimerSample);
+        });
     }
 
     private boolean numPartitionsValid(Types.NewTopicInput settings, int maxPartitions) {
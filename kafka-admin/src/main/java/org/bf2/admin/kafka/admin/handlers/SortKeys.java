@@ -0,0 +1,331 @@
+package org.bf2.admin.kafka.admin.handlers;
+
+import org.bf2.admin.kafka.admin.model.Types;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorting of topics and consumer groups using keys extracted once per item into
+ * primitive arrays, rather than re-evaluated on every comparison as done by
+ * {@link CommonHandler.TopicComparator} and {@link CommonHandler.ConsumerGroupComparator}.
+ * The resulting order is the same as a (stable) sort using the comparators, with the
+ * exception that items missing a numeric sort key are ordered as though the key were
+ * unlimited (<code>-1</code>) rather than being considered equal to every other item.
+ */
+public final class SortKeys {
+
+    /**
+     * Compares two items of the list being sorted by their index.
+     */
+    @FunctionalInterface
+    interface IndexComparator {
+        int compare(int first, int second);
+    }
+
+    private SortKeys() {
+    }
+
+    /**
+     * Sort the topics in place by the given key. Unknown keys leave the list unchanged.
+     *
+     * @param topics list of topics to sort
+     * @param key one of <code>name</code>, <code>partitions</code>, <code>retention.ms</code>, or <code>retention.bytes</code>
+     * @param order sort direction
+     */
+    public static void sortTopics(List<Types.Topic> topics, String key, Types.SortDirectionEnum order) {
+        final int size = topics.size();
+        final IndexComparator comparator;
+
+        if ("name".equals(key)) {
+            String[] names = new String[size];
+            for (int i = 0; i < size; i++) {
+                names[i] = foldCase(topics.get(i).getName());
+            }
+            comparator = (first, second) -> names[first].compareTo(names[second]);
+        } else if ("partitions".equals(key)) {
+            int[] partitions = new int[size];
+            for (int i = 0; i < size; i++) {
+                List<Types.Partition> topicPartitions = topics.get(i).getPartitions();
+                partitions[i] = topicPartitions != null ? topicPartitions.size() : 0;
+            }
+            comparator = (first, second) -> Integer.compare(partitions[first], partitions[second]);
+        } else if ("retention.ms".equals(key) || "retention.bytes".equals(key)) {
+            long[] retention = new long[size];
+            for (int i = 0; i < size; i++) {
+                retention[i] = configLimit(topics.get(i), key);
+            }
+            comparator = (first, second) -> Long.compare(retention[first], retention[second]);
+        } else {
+            return;
+        }
+
+        reorder(topics, comparator, order);
+    }
+
+    /**
+     * Sort the consumer groups in place by the given key. Unknown keys leave the list unchanged.
+     *
+     * @param groups list of consumer groups to sort
+     * @param key <code>name</code>
+     * @param order sort direction
+     */
+    public static <G extends Types.ConsumerGroup> void sortConsumerGroups(List<G> groups, String key, Types.SortDirectionEnum order) {
+        if (!"name".equals(key)) {
+            return;
+        }
+
+        final int size = groups.size();
+        String[] names = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            G group = groups.get(i);
+            names[i] = group != null ? foldCase(group.getGroupId()) : "";
+        }
+
+        reorder(groups, (first, second) -> names[first].compareTo(names[second]), order);
+    }
+
+    /**
+     * Sort the names in place, ignoring case, in the same order as {@link #sortConsumerGroups}
+     * sorts groups by name.
+     *
+     * @param names list of names to sort
+     * @param order sort direction
+     */
+    public static void sortNames(List<String> names, Types.SortDirectionEnum order) {
+        final int size = names.size();
+        String[] folded = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            folded[i] = foldCase(names.get(i));
+        }
+
+        reorder(names, (first, second) -> folded[first].compareTo(folded[second]), order);
+    }
+
+    /**
+     * Order the leading <code>limit</code> names by their totals, e.g. the total lag of each consumer
+     * group, without sorting the full list. The leading items are selected using a heap bounded to
+     * <code>limit</code> entries, so ranking n items costs <code>O(n log limit)</code> comparisons
+     * of primitive keys. Items with equal totals are ordered by name, ignoring case.
+     *
+     * @param names the names of the items, e.g. consumer group IDs
+     * @param totals the total of each item, indexed as <code>names</code>
+     * @param limit number of leading items to order
+     * @param order sort direction of the totals
+     * @return all of the names, the first <code>limit</code> in order followed by the remainder in their original order
+     */
+    public static List<String> rankByTotal(List<String> names, long[] totals, int limit, Types.SortDirectionEnum order) {
+        final int size = names.size();
+        final boolean descending = Types.SortDirectionEnum.DESC.equals(order);
+        String[] folded = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            folded[i] = foldCase(names.get(i));
+        }
+
+        int[] top = topIndices(size, Math.max(0, Math.min(limit, size)), (first, second) -> {
+            int result = descending ? Long.compare(totals[second], totals[first]) : Long.compare(totals[first], totals[second]);
+
+            if (result == 0) {
+                result = folded[first].compareTo(folded[second]);
+            }
+
+            return result != 0 ? result : Integer.compare(first, second);
+        });
+
+        boolean[] selected = new boolean[size];
+        List<String> ranked = new ArrayList<>(size);
+
+        for (int index : top) {
+            selected[index] = true;
+            ranked.add(names.get(index));
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (!selected[i]) {
+                ranked.add(names.get(i));
+            }
+        }
+
+        return ranked;
+    }
+
+    /**
+     * Fold the case of each character as {@link String#compareToIgnoreCase(String)} does, so that
+     * comparing the folded values gives the same order as the comparators.
+     */
+    static String foldCase(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        StringBuilder folded = new StringBuilder(value.length());
+        value.codePoints().forEach(c -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+        return folded.toString();
+    }
+
+    /**
+     * Obtain the numeric value of the topic's configuration entry, with <code>-1</code> (and
+     * missing or invalid values) treated as unlimited.
+     */
+    static long configLimit(Types.Topic topic, String key) {
+        if (topic.getConfig() != null) {
+            for (Types.ConfigEntry entry : topic.getConfig()) {
+                if (key.equals(entry.getKey())) {
+                    String value = entry.getValue();
+
+                    if (value == null || "-1".equals(value)) {
+                        return Long.MAX_VALUE;
+                    }
+
+                    try {
+                        return Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        return Long.MAX_VALUE;
+                    }
+                }
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    private static <T> void reorder(List<T> items, IndexComparator comparator, Types.SortDirectionEnum order) {
+        IndexComparator directed = comparator;
+
+        if (Types.SortDirectionEnum.DESC.equals(order)) {
+            directed = (first, second) -> comparator.compare(second, first);
+        }
+
+        int[] indices = sortedIndices(items.size(), directed);
+        List<T> sorted = new ArrayList<>(items.size());
+
+        for (int index : indices) {
+            sorted.add(items.get(index));
+        }
+
+        for (int i = 0; i < indices.length; i++) {
+            items.set(i, sorted.get(i));
+        }
+    }
+
+    /**
+     * Stable merge sort of the indices <code>0..size-1</code> using the comparator.
+     *
+     * @param size number of items
+     * @param comparator comparison of items by index
+     * @return the indices of the items, in sorted order
+     */
+    static int[] sortedIndices(int size, IndexComparator comparator) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+
+        int[] buffer = new int[size];
+
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size - width; low += 2 * width) {
+                int mid = low + width;
+                int high = Math.min(low + 2 * width, size);
+                merge(indices, buffer, low, mid, high, comparator);
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Select the first <code>limit</code> of the indices <code>0..size-1</code> in the order of the
+     * comparator, which must not consider any two indices equal. A binary max-heap holds the best
+     * indices seen so far with the worst at its root, which is replaced by any better index.
+     *
+     * @param size number of items
+     * @param limit number of items to select
+     * @param comparator comparison of items by index
+     * @return the selected indices, in sorted order
+     */
+    static int[] topIndices(int size, int limit, IndexComparator comparator) {
+        int[] heap = new int[limit];
+        int count = 0;
+
+        for (int i = 0; i < size && limit > 0; i++) {
+            if (count < limit) {
+                heap[count] = i;
+                siftUp(heap, count++, comparator);
+            } else if (comparator.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, 0, count, comparator);
+            }
+        }
+
+        // Remove the worst remaining index until the heap is empty
+        int[] selected = new int[count];
+
+        for (int remaining = count; remaining > 0; remaining--) {
+            selected[remaining - 1] = heap[0];
+            heap[0] = heap[remaining - 1];
+            siftDown(heap, 0, remaining - 1, comparator);
+        }
+
+        return selected;
+    }
+
+    private static void siftUp(int[] heap, int position, IndexComparator comparator) {
+        int item = heap[position];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (comparator.compare(item, heap[parent]) <= 0) {
+                break;
+            }
+
+            heap[position] = heap[parent];
+            position = parent;
+        }
+
+        heap[position] = item;
+    }
+
+    private static void siftDown(int[] heap, int position, int count, IndexComparator comparator) {
+        int item = heap[position];
+
+        while (2 * position + 1 < count) {
+            int child = 2 * position + 1;
+
+            if (child + 1 < count && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(item, heap[child]) >= 0) {
+                break;
+            }
+
+            heap[position] = heap[child];
+            position = child;
+        }
+
+        heap[position] = item;
+    }
+
+    private static void merge(int[] indices, int[] buffer, int low, int mid, int high, IndexComparator comparator) {
+        if (comparator.compare(indices[mid - 1], indices[mid]) <= 0) {
+            // Already in order
+            return;
+        }
+
+        System.arraycopy(indices, low, buffer, low, high - low);
+        int left = low;
+        int right = mid;
+
+        for (int i = low; i < high; i++) {
+            if (left < mid && (right >= high || comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                indices[i] = buffer[left++];
+            } else {
+                indices[i] = buffer[right++];
+            }
+        }
+    }
+}
@@ -482,9 +482,284 @@ public class Types {
         }
     }
 
+    public static class ConsumerGroupSummary {
+        private int memberCount;
+        private int partitionCount;
+        private long totalLag;
+        private long maxLag;
+
+        public int getMemberCount() {
+            return memberCount;
+        }
+
+        public void setMemberCount(int memberCount) {
+            this.memberCount = memberCount;
+        }
+
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+
+        public void setPartitionCount(int partitionCount) {
+            this.partitionCount = partitionCount;
+        }
+
+        public long getTotalLag() {
+            return totalLag;
+        }
+
+        public void setTotalLag(long totalLag) {
+            this.totalLag = totalLag;
+        }
+
+        public long getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(long maxLag) {
+            this.maxLag = maxLag;
+        }
+    }
+
+    public static class LagSample {
+        private long timestamp;
+        private long offset;
+        private long logEndOffset;
+        private long lag;
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public void setOffset(long offset) {
+            this.offset = offset;
+        }
+
+        public long getLogEndOffset() {
+            return logEndOffset;
+        }
+
+        public void setLogEndOffset(long logEndOffset) {
+            this.logEndOffset = logEndOffset;
+        }
+
+        public long getLag() {
+            return lag;
+        }
+
+        public void setLag(long lag) {
+            this.lag = lag;
+        }
+    }
+
+    public static class PartitionLagHistory {
+        private String topic;
+        private int partition;
+        private List<LagSample> samples;
+        private double consumptionRate;
+        private double lagRate;
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+
+        public int getPartition() {
+            return partition;
+        }
+
+        public void setPartition(int partition) {
+            this.partition = partition;
+        }
+
+        public List<LagSample> getSamples() {
+            return samples;
+        }
+
+        public void setSamples(List<LagSample> samples) {
+            this.samples = samples;
+        }
+
+        public double getConsumptionRate() {
+            return consumptionRate;
+        }
+
+        public void setConsumptionRate(double consumptionRate) {
+            this.consumptionRate = consumptionRate;
+        }
+
+        public double getLagRate() {
+            return lagRate;
+        }
+
+        public void setLagRate(double lagRate) {
+            this.lagRate = lagRate;
+        }
+    }
+
+    public static class ConsumerGroupLagHistory {
+        private String groupId;
+        private List<PartitionLagHistory> partitions;
+        private double consumptionRate;
+        private double lagRate;
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public void setGroupId(String groupId) {
+            this.groupId = groupId;
+        }
+
+        public List<PartitionLagHistory> getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(List<PartitionLagHistory> partitions) {
+            this.partitions = partitions;
+        }
+
+        public double getConsumptionRate() {
+            return consumptionRate;
+        }
+
+        public void setConsumptionRate(double consumptionRate) {
+            this.consumptionRate = consumptionRate;
+        }
+
+        public double getLagRate() {
+            return lagRate;
+        }
+
+        public void setLagRate(double lagRate) {
+            this.lagRate = lagRate;
+        }
+    }
+
+    public static class PartitionLag {
+        private int partition;
+        private long offset;
+        private long logEndOffset;
+        private long lag;
+
+        public int getPartition() {
+            return partition;
+        }
+
+        public void setPartition(int partition) {
+            this.partition = partition;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public void setOffset(long offset) {
+            this.offset = offset;
+        }
+
+        public long getLogEndOffset() {
+            return logEndOffset;
+        }
+
+        public void setLogEndOffset(long logEndOffset) {
+            this.logEndOffset = logEndOffset;
+        }
+
+        public long getLag() {
+            return lag;
+        }
+
+        public void setLag(long lag) {
+            this.lag = lag;
+        }
+    }
+
+    public static class TopicConsumerGroupLag {
+        private String groupId;
+        private String state;
+        private long totalLag;
+        private List<PartitionLag> partitions;
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public void setGroupId(String groupId) {
+            this.groupId = groupId;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public void setState(String state) {
+            this.state = state;
+        }
+
+        public long getTotalLag() {
+            return totalLag;
+        }
+
+        public void setTotalLag(long totalLag) {
+            this.totalLag = totalLag;
+        }
+
+        public List<PartitionLag> getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(List<PartitionLag> partitions) {
+            this.partitions = partitions;
+        }
+    }
+
+    public static class TopicConsumerLag {
+        private String topic;
+        private long totalLag;
+        private List<TopicConsumerGroupLag> groups;
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+
+        public long getTotalLag() {
+            return totalLag;
+        }
+
+        public void setTotalLag(long totalLag) {
+            this.totalLag = totalLag;
+        }
+
+        public List<TopicConsumerGroupLag> getGroups() {
+            return groups;
+        }
+
+        public void setGroups(List<TopicConsumerGroupLag> groups) {
+            this.groups = groups;
+        }
+    }
+
     public static class ConsumerGroupDescription extends ConsumerGroup {
         private List<Consumer> consumers;
         private String state;
+        private ConsumerGroupSummary summary;
+        private Long timeLagMs;
 
         public List<Consumer> getConsumers() {
             return consumers;
@@ -501,6 +776,24 @@ public class Types {
         public void setState(String state) {
             this.state = state;
         }
+
+        @JsonInclude(Include.NON_NULL)
+        public ConsumerGroupSummary getSummary() {
+            return summary;
+        }
+
+        public void setSummary(ConsumerGroupSummary summary) {
+            this.summary = summary;
+        }
+
+        @JsonInclude(Include.NON_NULL)
+        public Long getTimeLagMs() {
+            return timeLagMs;
+        }
+
+        public void setTimeLagMs(Long timeLagMs) {
+            this.timeLagMs = timeLagMs;
+        }
     }
 
     @JsonInclude(Include.NON_NULL)
@@ -621,6 +914,7 @@ public class Types {
         private long offset;
         private long lag;
         private long logEndOffset;
+        private Long timeLagMs;
 
         public String getMemberId() {
             return memberId;
@@ -678,6 +972,15 @@ public class Types {
             this.logEndOffset = logEndOffset;
         }
 
+        @JsonInclude(Include.NON_NULL)
+        public Long getTimeLagMs() {
+            return timeLagMs;
+        }
+
+        public void setTimeLagMs(Long timeLagMs) {
+            this.timeLagMs = timeLagMs;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o)
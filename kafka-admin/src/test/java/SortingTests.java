@@ -1,9 +1,15 @@
 import org.bf2.admin.kafka.admin.handlers.CommonHandler;
+import org.bf2.admin.kafka.admin.handlers.SortKeys;
 import org.bf2.admin.kafka.admin.model.Types;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class SortingTests {
 
@@ -194,4 +200,168 @@ public class SortingTests {
         Assertions.assertEquals(0, consumerGroupComparator.compare(first, second));
     }
 
+    // precomputed sort keys
+    @Test
+    public void testSortKeysMatchTopicComparator() {
+        Random random = new Random(1234);
+        List<Types.Topic> topics = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            Types.Topic topic = new Types.Topic();
+            topic.setName((random.nextBoolean() ? "Topic-" : "topic-") + random.nextInt(100));
+
+            List<Types.Partition> partitions = new ArrayList<>();
+            for (int p = random.nextInt(10); p > 0; p--) {
+                partitions.add(new Types.Partition());
+            }
+            topic.setPartitions(partitions);
+
+            Types.ConfigEntry retentionMs = new Types.ConfigEntry();
+            retentionMs.setKey("retention.ms");
+            retentionMs.setValue(random.nextInt(5) == 0 ? "-1" : String.valueOf(random.nextInt(1000)));
+            Types.ConfigEntry retentionBytes = new Types.ConfigEntry();
+            retentionBytes.setKey("retention.bytes");
+            retentionBytes.setValue(random.nextInt(5) == 0 ? "-1" : String.valueOf(random.nextInt(1000)));
+            topic.setConfig(List.of(retentionMs, retentionBytes));
+
+            topics.add(topic);
+        }
+
+        for (String key : List.of("name", "partitions", "retention.ms", "retention.bytes")) {
+            for (Types.SortDirectionEnum order : Types.SortDirectionEnum.values()) {
+                List<Types.Topic> expected = new ArrayList<>(topics);
+                expected.sort(Types.SortDirectionEnum.DESC.equals(order) ?
+                        new CommonHandler.TopicComparator(key).reversed() :
+                        new CommonHandler.TopicComparator(key));
+
+                List<Types.Topic> actual = new ArrayList<>(topics);
+                SortKeys.sortTopics(actual, key, order);
+
+                Assertions.assertEquals(expected, actual, key + " " + order);
+            }
+        }
+    }
+
+    @Test
+    public void testSortKeysFoldCaseAsComparator() {
+        // 'ſ' (long s) and 'İ' are folded to 's' and 'i' by compareToIgnoreCase, not by toLowerCase
+        List<String> names = List.of("sb", "\u017Fa", "ib", "\u0130a", "Sc");
+        List<Types.Topic> topics = new ArrayList<>();
+
+        for (String name : names) {
+            Types.Topic topic = new Types.Topic();
+            topic.setName(name);
+            topics.add(topic);
+        }
+
+        List<Types.Topic> expected = new ArrayList<>(topics);
+        expected.sort(new CommonHandler.TopicComparator("name"));
+
+        List<Types.Topic> actual = new ArrayList<>(topics);
+        SortKeys.sortTopics(actual, "name", Types.SortDirectionEnum.ASC);
+        Assertions.assertEquals(expected, actual);
+
+        List<String> expectedNames = new ArrayList<>(names);
+        expectedNames.sort(String::compareToIgnoreCase);
+
+        List<String> actualNames = new ArrayList<>(names);
+        SortKeys.sortNames(actualNames, Types.SortDirectionEnum.ASC);
+        Assertions.assertEquals(expectedNames, actualNames);
+    }
+
+    @Test
+    public void testSortKeysMissingRetentionLast() {
+        String key = "retention.bytes";
+        Types.Topic first = new Types.Topic();
+        first.setName("first");
+        first.setConfig(Collections.emptyList());
+
+        Types.Topic second = new Types.Topic();
+        second.setName("second");
+        Types.ConfigEntry ce2 = new Types.ConfigEntry();
+        ce2.setKey(key);
+        ce2.setValue("102");
+        second.setConfig(Collections.singletonList(ce2));
+
+        List<Types.Topic> topics = new ArrayList<>(List.of(first, second));
+        SortKeys.sortTopics(topics, key, Types.SortDirectionEnum.ASC);
+
+        Assertions.assertEquals(List.of(second, first), topics);
+    }
+
+    @Test
+    public void testSortKeysConsumerGroupsStable() {
+        Types.ConsumerGroup first = new Types.ConsumerGroup();
+        first.setGroupId("abc");
+        Types.ConsumerGroup second = new Types.ConsumerGroup();
+        second.setGroupId("ABC");
+        Types.ConsumerGroup third = new Types.ConsumerGroup();
+        third.setGroupId("Abb");
+
+        List<Types.ConsumerGroup> groups = new ArrayList<>(List.of(first, second, third));
+        SortKeys.sortConsumerGroups(groups, "name", Types.SortDirectionEnum.ASC);
+        Assertions.assertEquals(List.of(third, first, second), groups);
+
+        groups = new ArrayList<>(List.of(first, second, third));
+        SortKeys.sortConsumerGroups(groups, "name", Types.SortDirectionEnum.DESC);
+        Assertions.assertEquals(List.of(first, second, third), groups);
+    }
+
+    @Test
+    public void testSortKeysNamesMatchConsumerGroups() {
+        List<String> names = new ArrayList<>(List.of("b-group", "A-group", "a-group", "C-group", "B-group"));
+        List<Types.ConsumerGroup> groups = new ArrayList<>();
+
+        for (String name : names) {
+            Types.ConsumerGroup group = new Types.ConsumerGroup();
+            group.setGroupId(name);
+            groups.add(group);
+        }
+
+        for (Types.SortDirectionEnum order : Types.SortDirectionEnum.values()) {
+            List<String> sortedNames = new ArrayList<>(names);
+            SortKeys.sortNames(sortedNames, order);
+
+            List<Types.ConsumerGroup> sortedGroups = new ArrayList<>(groups);
+            SortKeys.sortConsumerGroups(sortedGroups, "name", order);
+
+            Assertions.assertEquals(sortedNames, sortedGroups.stream().map(Types.ConsumerGroup::getGroupId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testRankByTotalMatchesFullSort() {
+        Random random = new Random(7);
+        List<String> names = new ArrayList<>();
+        long[] totals = new long[200];
+
+        for (int i = 0; i < totals.length; i++) {
+            names.add("group-" + i);
+            totals[i] = random.nextInt(20);
+        }
+
+        for (Types.SortDirectionEnum order : Types.SortDirectionEnum.values()) {
+            List<Integer> indices = new ArrayList<>();
+            for (int i = 0; i < totals.length; i++) {
+                indices.add(i);
+            }
+            indices.sort((first, second) -> {
+                int result = Types.SortDirectionEnum.DESC.equals(order) ?
+                        Long.compare(totals[second], totals[first]) :
+                        Long.compare(totals[first], totals[second]);
+                return result != 0 ? result : names.get(first).compareTo(names.get(second));
+            });
+            List<String> expected = indices.stream().map(names::get).collect(Collectors.toList());
+
+            for (int limit : new int[] {0, 1, 20, 199, 200, 500}) {
+                List<String> ranked = SortKeys.rankByTotal(names, totals, limit, order);
+                int leading = Math.min(limit, names.size());
+
+                Assertions.assertEquals(names.size(), ranked.size());
+                Assertions.assertEquals(expected.subList(0, leading), ranked.subList(0, leading));
+                Assertions.assertEquals(Set.copyOf(names), Set.copyOf(ranked));
+            }
+        }
+    }
+
 }
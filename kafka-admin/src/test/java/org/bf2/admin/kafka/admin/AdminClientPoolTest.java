@@ -0,0 +1,166 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.apache.kafka.common.errors.SaslAuthenticationException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SuppressWarnings("rawtypes") // CompositeFuture#all requires raw type
+class AdminClientPoolTest {
+
+    /**
+     * Maximum time the event loop may be occupied by acquiring clients for several
+     * distinct credentials. Creating the clients synchronously exceeds this.
+     */
+    static final long MAX_EVENT_LOOP_BLOCK_MS = 100;
+
+    Vertx vertx;
+    AdminClientPool pool;
+
+    @BeforeEach
+    void setup() {
+        vertx = Vertx.vertx();
+        pool = new AdminClientPool(vertx, 2, 60_000);
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        await(pool.close());
+        await(vertx.close());
+    }
+
+    @Test
+    void testSameCredentialsShareClient() throws Exception {
+        AdminClientPool.Lease first = await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY));
+        AdminClientPool.Lease second = await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY));
+
+        assertSame(first.admin(), second.admin());
+        assertEquals(1, pool.size());
+        first.release();
+        second.release();
+    }
+
+    @Test
+    void testDifferentCredentialsUseSeparateClients() throws Exception {
+        AdminClientPool.Lease first = await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY));
+        AdminClientPool.Lease second = await(pool.acquire(config("user2"), AdminClientPool.NO_EXPIRY));
+
+        assertNotSame(first.admin(), second.admin());
+        assertEquals(2, pool.size());
+        first.release();
+        second.release();
+    }
+
+    @Test
+    void testLeastRecentlyUsedIdleClientRemovedAtMaxSize() throws Exception {
+        await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY)).release();
+        await(pool.acquire(config("user2"), AdminClientPool.NO_EXPIRY)).release();
+        await(pool.acquire(config("user3"), AdminClientPool.NO_EXPIRY)).release();
+
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void testExpiredClientReplaced() throws Exception {
+        AdminClientPool.Lease first = await(pool.acquire(config("user1"), System.currentTimeMillis() - 1));
+        first.release();
+        AdminClientPool.Lease second = await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY));
+
+        assertNotSame(first.admin(), second.admin());
+        second.release();
+    }
+
+    @Test
+    void testInvalidatedClientReplaced() throws Exception {
+        AdminClientPool.Lease first = await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY));
+        first.invalidate();
+        assertEquals(0, pool.size());
+
+        AdminClientPool.Lease second = await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY));
+        assertNotSame(first.admin(), second.admin());
+        second.release();
+    }
+
+    @Test
+    void testFatalClientErrors() {
+        assertTrue(AdminClientPool.isFatalClientError(new SaslAuthenticationException("bad credentials")));
+        assertTrue(AdminClientPool.isFatalClientError(new CompletionException(new KafkaException("The AdminClient thread has exited."))));
+        assertFalse(AdminClientPool.isFatalClientError(new TimeoutException("Timed out waiting for a node assignment.")));
+        assertFalse(AdminClientPool.isFatalClientError(new KafkaException("Unexpected error")));
+    }
+
+    @Test
+    void testSharedClientRetainedAndRebuilt() throws Exception {
+        await(pool.share(config("anonymous")));
+        AdminClientPool.Lease first = await(pool.acquire(config("anonymous"), AdminClientPool.NO_EXPIRY));
+        first.release();
+
+        await(pool.acquire(config("user1"), AdminClientPool.NO_EXPIRY)).release();
+        await(pool.acquire(config("user2"), AdminClientPool.NO_EXPIRY)).release();
+        pool.evict();
+
+        AdminClientPool.Lease second = await(pool.acquire(config("anonymous"), AdminClientPool.NO_EXPIRY));
+        assertSame(first.admin(), second.admin());
+
+        second.invalidate();
+        AdminClientPool.Entry rebuilt = pool.pooled(config("anonymous"));
+        assertNotNull(rebuilt);
+        await(rebuilt.creation);
+        assertNotSame(first.admin(), rebuilt.admin);
+
+        AdminClientPool.Lease third = await(pool.acquire(config("anonymous"), AdminClientPool.NO_EXPIRY));
+        assertSame(rebuilt.admin, third.admin());
+        third.release();
+    }
+
+    @Test
+    void testAcquireDoesNotBlockEventLoop() throws Exception {
+        CompletableFuture<Long> elapsed = new CompletableFuture<>();
+        List<Future> leases = new ArrayList<>();
+
+        vertx.runOnContext(nothing -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                leases.add(pool.acquire(config("user" + i), AdminClientPool.NO_EXPIRY).onSuccess(AdminClientPool.Lease::release));
+            }
+            elapsed.complete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        });
+
+        long blockedMs = elapsed.get(10, TimeUnit.SECONDS);
+        await(CompositeFuture.all(leases));
+        assertTrue(blockedMs < MAX_EVENT_LOOP_BLOCK_MS, "Event loop blocked for " + blockedMs + "ms");
+    }
+
+    static Map<String, Object> config(String username) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(SaslConfigs.SASL_JAAS_CONFIG, "username=\"" + username + "\"");
+        return config;
+    }
+
+    static <T> T await(Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,55 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsumerGroupExportTest {
+
+    @Test
+    void testExportLines() {
+        TopicPartition a0 = new TopicPartition("a", 0);
+        TopicPartition a1 = new TopicPartition("a", 1);
+        TopicPartition b0 = new TopicPartition("b", 0);
+
+        ConsumerGroupInfo g1 = new ConsumerGroupInfo(new ConsumerGroupDescription("g1", false,
+            List.of(), "range", ConsumerGroupState.EMPTY, null),
+            Map.of(b0, new OffsetAndMetadata(4, null), a1, new OffsetAndMetadata(50, null), a0, new OffsetAndMetadata(70, null)));
+        ConsumerGroupInfo g2 = new ConsumerGroupInfo(new ConsumerGroupDescription("g2", false,
+            List.of(), "range", ConsumerGroupState.EMPTY, null),
+            Map.of());
+
+        LagTable lagTable = new LagTable(List.of(g1, g2), Map.of(
+            a0, new ListOffsetsResultInfo(100, -1, null),
+            a1, new ListOffsetsResultInfo(40, -1, null),
+            b0, new ListOffsetsResultInfo(10, -1, null)));
+
+        List<JsonObject> lines = ConsumerGroupExport.exportLines(List.of(g1, g2), lagTable)
+            .toString()
+            .lines()
+            .map(JsonObject::new)
+            .collect(Collectors.toList());
+
+        assertEquals(3, lines.size());
+        assertEquals(List.of("a", "a", "b"), lines.stream().map(line -> line.getString("topic")).collect(Collectors.toList()));
+
+        JsonObject line = lines.get(0);
+        assertEquals("g1", line.getString("groupId"));
+        assertEquals("EMPTY", line.getString("state"));
+        assertEquals(0, line.getInteger("partition"));
+        assertEquals(70, line.getLong("offset"));
+        assertEquals(100, line.getLong("logEndOffset"));
+        assertEquals(30, line.getLong("lag"));
+        assertEquals(0, lines.get(1).getLong("lag"));
+    }
+}
@@ -0,0 +1,124 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.bf2.admin.kafka.admin.model.Types;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsumerGroupLagHistoryTest {
+
+    static final TopicPartition P0 = new TopicPartition("topic", 0);
+    static final TopicPartition P1 = new TopicPartition("topic", 1);
+
+    @Test
+    void testLagAndRates() {
+        ConsumerGroupLagHistory history = new ConsumerGroupLagHistory(10, 0, 100);
+        record(history, "g1", P0, 100, 600, 0);
+        record(history, "g1", P0, 1100, 1400, 10_000);
+
+        Types.ConsumerGroupLagHistory result = history.get("g1", Set.of(P0));
+        assertEquals("g1", result.getGroupId());
+        assertEquals(1, result.getPartitions().size());
+
+        Types.PartitionLagHistory partition = result.getPartitions().get(0);
+        assertEquals(List.of(500L, 300L), partition.getSamples().stream().map(Types.LagSample::getLag).collect(Collectors.toList()));
+        assertEquals(100.0, partition.getConsumptionRate());
+        assertEquals(-20.0, partition.getLagRate());
+        assertEquals(100.0, result.getConsumptionRate());
+        assertEquals(-20.0, result.getLagRate());
+    }
+
+    @Test
+    void testDownsampledWhenFull() {
+        ConsumerGroupLagHistory history = new ConsumerGroupLagHistory(4, 1000, 100);
+
+        for (long t = 0; t <= 4000; t += 1000) {
+            record(history, "g1", P0, t, t + 10, t);
+        }
+
+        // Every other sample discarded, latest kept, interval doubled
+        assertEquals(List.of(1000L, 3000L, 4000L), times(history.get("g1", Set.of(P0))));
+
+        // Within the doubled interval of the sample before, replaces the latest
+        record(history, "g1", P0, 5000, 5010, 5000);
+        assertEquals(List.of(1000L, 3000L, 5000L), times(history.get("g1", Set.of(P0))));
+
+        record(history, "g1", P0, 7000, 7010, 7000);
+        assertEquals(List.of(1000L, 3000L, 5000L, 7000L), times(history.get("g1", Set.of(P0))));
+    }
+
+    @Test
+    void testTruncationResetsPartition() {
+        ConsumerGroupLagHistory history = new ConsumerGroupLagHistory(10, 0, 100);
+        record(history, "g1", P0, 100, 500, 1000);
+        record(history, "g1", P0, 0, 10, 2000);
+
+        assertEquals(List.of(2000L), times(history.get("g1", Set.of(P0))));
+    }
+
+    @Test
+    void testOnlyVisiblePartitionsReturned() {
+        ConsumerGroupLagHistory history = new ConsumerGroupLagHistory(10, 0, 100);
+        record(history, "g1", P0, 1, 2, 1000);
+        record(history, "g1", P1, 1, 2, 1000);
+
+        assertEquals(2, history.get("g1", Set.of(P0, P1)).getPartitions().size());
+        assertEquals(List.of(1), history.get("g1", Set.of(P1)).getPartitions()
+                     .stream()
+                     .map(Types.PartitionLagHistory::getPartition)
+                     .collect(Collectors.toList()));
+        assertTrue(history.get("g2", Set.of(P0)).getPartitions().isEmpty());
+    }
+
+    @Test
+    void testPartitionLimit() {
+        ConsumerGroupLagHistory history = new ConsumerGroupLagHistory(2, 1000, 1);
+        record(history, "g1", P0, 1, 2, 0);
+        // P0 still recent, P1 not recorded
+        record(history, "g2", P1, 1, 2, 1000);
+        assertEquals(1, history.partitionCount());
+        assertTrue(history.get("g2", Set.of(P1)).getPartitions().isEmpty());
+
+        // P0 stale, replaced by P1
+        record(history, "g2", P1, 1, 2, 2000);
+        assertEquals(1, history.partitionCount());
+        assertTrue(history.get("g1", Set.of(P0)).getPartitions().isEmpty());
+        assertEquals(1, history.get("g2", Set.of(P1)).getPartitions().size());
+
+        history.remove("g2");
+        assertEquals(0, history.partitionCount());
+    }
+
+    @Test
+    void testDisabled() {
+        ConsumerGroupLagHistory history = new ConsumerGroupLagHistory(0, 1000, 100);
+        record(history, "g1", P0, 1, 2, 0);
+        assertEquals(0, history.partitionCount());
+    }
+
+    static List<Long> times(Types.ConsumerGroupLagHistory history) {
+        return history.getPartitions()
+            .get(0)
+            .getSamples()
+            .stream()
+            .map(Types.LagSample::getTimestamp)
+            .collect(Collectors.toList());
+    }
+
+    static void record(ConsumerGroupLagHistory history, String groupId, TopicPartition partition, long committed, long endOffset, long timestamp) {
+        ConsumerGroupDescription description = new ConsumerGroupDescription(groupId, false, List.of(), "range", ConsumerGroupState.STABLE, null);
+        ConsumerGroupInfo info = new ConsumerGroupInfo(description, Map.of(partition, new OffsetAndMetadata(committed, null)));
+        history.record(List.of(info), Map.of(partition, new ListOffsetsResultInfo(endOffset, -1, null)), timestamp);
+    }
+}
@@ -0,0 +1,128 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.bf2.admin.kafka.admin.model.Types;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsumerGroupLagRankingTest {
+
+    Vertx vertx;
+    HttpMetrics httpMetrics;
+
+    @BeforeEach
+    void setup() {
+        vertx = Vertx.vertx(new VertxOptions()
+            .setMetricsOptions(new MicrometerMetricsOptions()
+                .setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true))
+                .setEnabled(true)));
+        httpMetrics = new HttpMetrics();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        TopicOperationsTest.await(vertx.close());
+    }
+
+    @Test
+    void testCommittedOffsetsFetchedWithoutDescribing() throws Exception {
+        FakeAdminClient cluster = new FakeAdminClient()
+            .on("listConsumerGroupOffsets", args -> Future.succeededFuture(Map.of(new TopicPartition("a", 0), new OffsetAndMetadata(args[0].hashCode(), null))));
+
+        List<ConsumerGroupInfo> infos = TopicOperationsTest.await(ConsumerGroupLagRanking.fetchCommittedOffsets(cluster.client(), List.of("g1", "g2", "g3"), 2, 1, httpMetrics));
+
+        assertEquals(List.of("g1", "g2", "g3"), infos.stream().map(info -> info.getDescription().getGroupId()).collect(Collectors.toList()));
+        assertEquals("g3".hashCode(), infos.get(2).getOffsets().get(new TopicPartition("a", 0)).getOffset());
+        assertEquals(List.of("g1", "g2", "g3"), cluster.requests("listConsumerGroupOffsets"));
+        assertEquals(List.of(), cluster.requests("describeConsumerGroups"));
+    }
+
+    @Test
+    void testOnlyPageDescribed() throws Exception {
+        TopicPartition a0 = new TopicPartition("a", 0);
+        TopicPartition b0 = new TopicPartition("b", 0);
+        List<ConsumerGroupInfo> infos = List.of(
+            new ConsumerGroupInfo(ConsumerGroupLagRanking.undescribed("g1"), Map.of(a0, new OffsetAndMetadata(70, null))),
+            new ConsumerGroupInfo(ConsumerGroupLagRanking.undescribed("g2"), Map.of(a0, new OffsetAndMetadata(90, null))),
+            new ConsumerGroupInfo(ConsumerGroupLagRanking.undescribed("g3"), Map.of(a0, new OffsetAndMetadata(40, null))),
+            new ConsumerGroupInfo(ConsumerGroupLagRanking.undescribed("g4"), Map.of(b0, new OffsetAndMetadata(0, null))));
+
+        @SuppressWarnings("unchecked")
+        FakeAdminClient cluster = new FakeAdminClient()
+            .on("listOffsets", args -> Future.succeededFuture(((Map<TopicPartition, ?>) args[0]).keySet()
+                .stream()
+                .collect(Collectors.toMap(p -> p, p -> new ListOffsetsResultInfo(100, -1, null)))))
+            .on("describeConsumerGroups", args -> Future.succeededFuture(((List<String>) args[0]).stream()
+                .collect(Collectors.toMap(groupId -> groupId, groupId -> new ConsumerGroupDescription(groupId, false, List.of(), "range", ConsumerGroupState.EMPTY, null)))));
+
+        Types.PageRequest pageRequest = new Types.PageRequest();
+        pageRequest.setPage(1);
+        pageRequest.setSize(2);
+
+        Types.PagedResponse<Types.ConsumerGroupDescription> page = TopicOperationsTest.await(ConsumerGroupLagRanking.rankedPage(cluster.client(), infos, Pattern.compile("a"), pageRequest,
+            Types.SortDirectionEnum.DESC, true, false, new LogEndOffsetCache(0), new ConsumerGroupLagHistory(0, 0, 0), new ConsumerGroupTopicIndex(0).scope("user1"), httpMetrics));
+
+        assertEquals(List.of("g3", "g1"), page.getItems().stream().map(Types.ConsumerGroupDescription::getGroupId).collect(Collectors.toList()));
+        assertEquals(List.of(60L, 30L), page.getItems().stream().map(group -> group.getSummary().getTotalLag()).collect(Collectors.toList()));
+        assertEquals(ConsumerGroupState.EMPTY.name(), page.getItems().get(0).getState());
+        assertEquals(3, page.getTotal());
+        assertEquals(List.of(List.of("g3", "g1")), cluster.requests("describeConsumerGroups"));
+    }
+
+    @Test
+    void testTotalLags() {
+        TopicPartition a0 = new TopicPartition("a", 0);
+        TopicPartition a1 = new TopicPartition("a", 1);
+        TopicPartition b0 = new TopicPartition("b", 0);
+
+        ConsumerGroupInfo g1 = new ConsumerGroupInfo(new ConsumerGroupDescription("g1", false,
+            List.of(), "range", ConsumerGroupState.EMPTY, null),
+            Map.of(a0, new OffsetAndMetadata(70, null), a1, new OffsetAndMetadata(50, null), b0, new OffsetAndMetadata(0, null)));
+        ConsumerGroupInfo g2 = new ConsumerGroupInfo(new ConsumerGroupDescription("g2", false,
+            List.of(), "range", ConsumerGroupState.EMPTY, null),
+            Map.of(b0, new OffsetAndMetadata(5, null)));
+
+        LagTable lagTable = new LagTable(List.of(g1, g2), Map.of(
+            a0, new ListOffsetsResultInfo(100, -1, null),
+            a1, new ListOffsetsResultInfo(40, -1, null),
+            b0, new ListOffsetsResultInfo(10, -1, null)));
+
+        assertArrayEquals(new long[] {40, 5}, ConsumerGroupLagRanking.totalLags(List.of(g1, g2), Pattern.compile(".*"), lagTable));
+        // No partitions of matching topics
+        assertArrayEquals(new long[] {30, -1}, ConsumerGroupLagRanking.totalLags(List.of(g1, g2), Pattern.compile("a"), lagTable));
+    }
+
+    @Test
+    void testPageEnd() {
+        Types.PageRequest pageRequest = new Types.PageRequest();
+        pageRequest.setPage(2);
+        pageRequest.setSize(20);
+        assertEquals(40, ConsumerGroupLagRanking.pageEnd(pageRequest, 100));
+        assertEquals(30, ConsumerGroupLagRanking.pageEnd(pageRequest, 30));
+
+        pageRequest.setDeprecatedFormat(true);
+        pageRequest.setOffset(5);
+        pageRequest.setLimit(10);
+        assertEquals(15, ConsumerGroupLagRanking.pageEnd(pageRequest, 100));
+        pageRequest.setLimit(0);
+        assertEquals(100, ConsumerGroupLagRanking.pageEnd(pageRequest, 100));
+    }
+}
@@ -0,0 +1,67 @@
+package org.bf2.admin.kafka.admin;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bf2.admin.kafka.admin.model.Types;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConsumerGroupLagSamplerTest {
+
+    @Test
+    void testGaugesUpdatedAndRemoved() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConsumerGroupLagSampler.LagGauges gauges = new ConsumerGroupLagSampler.LagGauges(registry, 10);
+
+        assertEquals(0, gauges.update(List.of(group("g1", consumer("t1", 0, 5), consumer("t1", 1, -2), consumer(null, -1, 0)))));
+        assertEquals(2, gauges.size());
+        assertEquals(5, lag(registry, "g1", "t1", "0"));
+        // Negative lag (stale end offset) published as zero
+        assertEquals(0, lag(registry, "g1", "t1", "1"));
+
+        gauges.update(List.of(group("g1", consumer("t1", 0, 7))));
+        assertEquals(1, gauges.size());
+        assertEquals(7, lag(registry, "g1", "t1", "0"));
+        assertNull(registry.find(ConsumerGroupLagSampler.LAG_GAUGE).tag("partition", "1").gauge());
+
+        gauges.clear();
+        assertNull(registry.find(ConsumerGroupLagSampler.LAG_GAUGE).gauge());
+    }
+
+    @Test
+    void testSeriesLimit() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConsumerGroupLagSampler.LagGauges gauges = new ConsumerGroupLagSampler.LagGauges(registry, 2);
+
+        assertEquals(1, gauges.update(List.of(group("g1", consumer("t1", 0, 1), consumer("t1", 1, 1), consumer("t1", 2, 1)))));
+        assertEquals(2, gauges.size());
+        assertEquals(2, registry.find(ConsumerGroupLagSampler.LAG_GAUGE).gauges().size());
+    }
+
+    static double lag(SimpleMeterRegistry registry, String group, String topic, String partition) {
+        Gauge gauge = registry.find(ConsumerGroupLagSampler.LAG_GAUGE)
+            .tags("group", group, "topic", topic, "partition", partition)
+            .gauge();
+        return gauge.value();
+    }
+
+    static Types.ConsumerGroupDescription group(String groupId, Types.Consumer... consumers) {
+        Types.ConsumerGroupDescription group = new Types.ConsumerGroupDescription();
+        group.setGroupId(groupId);
+        group.setConsumers(new ArrayList<>(List.of(consumers)));
+        return group;
+    }
+
+    static Types.Consumer consumer(String topic, int partition, long lag) {
+        Types.Consumer consumer = new Types.Consumer();
+        consumer.setTopic(topic);
+        consumer.setPartition(partition);
+        consumer.setLag(lag);
+        return consumer;
+    }
+}
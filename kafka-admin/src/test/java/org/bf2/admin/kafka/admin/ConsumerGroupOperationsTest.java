@@ -0,0 +1,205 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.admin.MemberAssignment;
+import io.vertx.kafka.admin.MemberDescription;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.bf2.admin.kafka.admin.model.Types;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsumerGroupOperationsTest {
+
+    @Test
+    void testRunWindowedLimitsConcurrency() {
+        List<Integer> items = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        List<Promise<String>> pending = new ArrayList<>();
+
+        Future<List<String>> result = ConsumerGroupOperations.runWindowed(items, 3, item -> {
+            Promise<String> promise = Promise.promise();
+            pending.add(promise);
+            return promise.future();
+        });
+
+        assertEquals(3, pending.size());
+
+        // Complete out of order, each completion starts one more task
+        pending.get(1).complete("1");
+        assertEquals(4, pending.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            pending.get(i).tryComplete(String.valueOf(i));
+        }
+
+        assertTrue(result.succeeded());
+        assertEquals(items.stream().map(String::valueOf).collect(Collectors.toList()), result.result());
+    }
+
+    @Test
+    void testRunWindowedStopsAfterFailure() {
+        List<Integer> items = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        List<Promise<String>> pending = new ArrayList<>();
+
+        Future<List<String>> result = ConsumerGroupOperations.runWindowed(items, 2, item -> {
+            Promise<String> promise = Promise.promise();
+            pending.add(promise);
+            return promise.future();
+        });
+
+        pending.get(0).fail("failed");
+        pending.get(1).complete("1");
+
+        assertTrue(result.failed());
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    void testRunWindowedEmpty() {
+        Future<List<String>> result = ConsumerGroupOperations.runWindowed(List.<Integer>of(), 2, item -> Future.succeededFuture("x"));
+        assertTrue(result.succeeded());
+        assertNotNull(result.result());
+        assertTrue(result.result().isEmpty());
+    }
+
+    @Test
+    void testMemberIndex() {
+        TopicPartition p0 = new TopicPartition("topic", 0);
+        TopicPartition p1 = new TopicPartition("topic", 1);
+        TopicPartition p2 = new TopicPartition("topic", 2);
+
+        ConsumerGroupOperations.MemberIndex index = new ConsumerGroupOperations.MemberIndex(List.of(
+            member("idle-1", Set.of()),
+            member("member-1", Set.of(p0, p1)),
+            member("idle-2", Set.of()),
+            member("member-2", Set.of(p1))));
+
+        assertTrue(index.hasAssignments());
+        assertEquals("member-1", index.memberId(p0));
+        assertEquals("member-2", index.memberId(p1));
+        assertNull(index.memberId(p2));
+        assertEquals("idle-1", index.idleMemberId());
+    }
+
+    @Test
+    void testMemberIndexWithoutAssignments() {
+        ConsumerGroupOperations.MemberIndex index = new ConsumerGroupOperations.MemberIndex(List.of(member("idle-1", Set.of())));
+
+        assertFalse(index.hasAssignments());
+        assertEquals("idle-1", index.idleMemberId());
+    }
+
+    @Test
+    void testConsumerGroupSummary() {
+        TopicPartition a0 = new TopicPartition("a", 0);
+        TopicPartition a1 = new TopicPartition("a", 1);
+        TopicPartition b0 = new TopicPartition("b", 0);
+
+        ConsumerGroupDescription group = new ConsumerGroupDescription("group", false,
+            List.of(member("member-1", Set.of(a0, a1)), member("idle-1", Set.of())),
+            "range", ConsumerGroupState.STABLE, null);
+
+        ConsumerGroupInfo info = new ConsumerGroupInfo(group, Map.of(
+            a0, new OffsetAndMetadata(70, null),
+            a1, new OffsetAndMetadata(50, null),
+            b0, new OffsetAndMetadata(0, null)));
+
+        LagTable lagTable = new LagTable(List.of(info), Map.of(
+            a0, new ListOffsetsResultInfo(100, -1, null),
+            a1, new ListOffsetsResultInfo(40, -1, null),
+            b0, new ListOffsetsResultInfo(10, -1, null)));
+
+        Types.ConsumerGroupDescription all = ConsumerGroupOperations.getConsumerGroupSummary(Pattern.compile(".*"), group, lagTable.offsets(info, topic -> true), null);
+        assertEquals("group", all.getGroupId());
+        assertEquals("STABLE", all.getState());
+        assertTrue(all.getConsumers().isEmpty());
+        assertEquals(2, all.getSummary().getMemberCount());
+        assertEquals(3, all.getSummary().getPartitionCount());
+        assertEquals(40, all.getSummary().getTotalLag());
+        assertEquals(30, all.getSummary().getMaxLag());
+
+        Types.ConsumerGroupDescription topicA = ConsumerGroupOperations.getConsumerGroupSummary(Pattern.compile("a"), group, lagTable.offsets(info, "a"::equals), null);
+        assertEquals(2, topicA.getSummary().getPartitionCount());
+        assertEquals(30, topicA.getSummary().getTotalLag());
+
+        assertNull(ConsumerGroupOperations.getConsumerGroupSummary(Pattern.compile("c"), group, lagTable.offsets(info, "c"::equals), null));
+    }
+
+    @Test
+    void testLatestOffsetPartitionsFiltered() {
+        TopicPartition a0 = new TopicPartition("a", 0);
+        TopicPartition a1 = new TopicPartition("a", 1);
+        TopicPartition b1 = new TopicPartition("b", 1);
+
+        Map<TopicPartition, OffsetAndMetadata> committed = Map.of(
+            a0, new OffsetAndMetadata(1, null),
+            a1, new OffsetAndMetadata(1, null),
+            b1, new OffsetAndMetadata(1, null));
+
+        ConsumerGroupInfo active = new ConsumerGroupInfo(new ConsumerGroupDescription("active", false,
+            List.of(member("member-1", Set.of(a0, a1, b1))), "range", ConsumerGroupState.STABLE, null), committed);
+        ConsumerGroupInfo empty = new ConsumerGroupInfo(new ConsumerGroupDescription("empty", false,
+            List.of(), "range", ConsumerGroupState.EMPTY, null), committed);
+
+        assertEquals(Set.of(a0, a1, b1), ConsumerGroupOperations.latestOffsetPartitions(List.of(active), Pattern.compile(".*"), -1));
+        assertEquals(Set.of(a1, b1), ConsumerGroupOperations.latestOffsetPartitions(List.of(active), Pattern.compile(".*"), 1));
+        assertEquals(Set.of(a1), ConsumerGroupOperations.latestOffsetPartitions(List.of(active), Pattern.compile("a"), 1));
+        // All partitions of groups without members are reported
+        assertEquals(Set.of(a0, a1), ConsumerGroupOperations.latestOffsetPartitions(List.of(active, empty), Pattern.compile("a"), 1));
+    }
+
+    @ParameterizedTest(name = "testCommittedAheadOfEndOffset-{0}")
+    @ValueSource(longs = {40, -1})
+    void testCommittedAheadOfEndOffset(long endOffset) {
+        // Committed offset ahead of the cached end offset (or with none known) counts as no lag in the aggregated views
+        TopicPartition a0 = new TopicPartition("a", 0);
+        ConsumerGroupDescription group = new ConsumerGroupDescription("g1", false,
+            List.of(member("member-1", Set.of(a0))), "range", ConsumerGroupState.STABLE, null);
+        ConsumerGroupInfo g1 = new ConsumerGroupInfo(group, Map.of(a0, new OffsetAndMetadata(50, null)));
+
+        LagTable lagTable = new LagTable(List.of(g1), endOffset < 0
+            ? Map.of()
+            : Map.of(a0, new ListOffsetsResultInfo(endOffset, -1, null)));
+
+        Types.ConsumerGroupDescription full = ConsumerGroupOperations.describe(g1, Pattern.compile(".*"), -1, new Types.OrderByInput(), false, lagTable, null)
+            .findFirst()
+            .orElseThrow();
+        // The full view reports the offsets as they are
+        assertEquals(Math.max(0, endOffset) - 50, full.getConsumers().get(0).getLag());
+
+        Types.ConsumerGroupDescription summary = ConsumerGroupOperations.describe(g1, Pattern.compile(".*"), -1, new Types.OrderByInput(), true, lagTable, null)
+            .findFirst()
+            .orElseThrow();
+        assertEquals(0, summary.getSummary().getTotalLag());
+        assertEquals(0, summary.getSummary().getMaxLag());
+
+        assertArrayEquals(new long[] {0}, ConsumerGroupLagRanking.totalLags(List.of(g1), Pattern.compile("a"), lagTable));
+        assertEquals(0, TopicConsumerLagOperations.getTopicConsumerLag("a", List.of(g1), lagTable).getTotalLag());
+        assertEquals(0, new JsonObject(ConsumerGroupExport.exportLines(List.of(g1), lagTable).toString().trim()).getLong("lag"));
+    }
+
+    static MemberDescription member(String consumerId, Set<TopicPartition> partitions) {
+        return new MemberDescription(consumerId, "client", "host", new MemberAssignment(partitions));
+    }
+}
@@ -0,0 +1,117 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.Future;
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsumerGroupTopicIndexTest {
+
+    static final List<String> GROUPS = List.of("g1", "g2", "g3", "g4");
+
+    @Test
+    void testCandidatesMatchIndexedTopics() {
+        ConsumerGroupTopicIndex index = new ConsumerGroupTopicIndex(60_000);
+        ConsumerGroupTopicIndex.Scope scope = index.scope("user1");
+
+        scope.update(info("g1", Set.of(new TopicPartition("orders", 0)), Set.of()));
+        scope.update(info("g2", Set.of(new TopicPartition("payments", 0)), Set.of()));
+        // Assigned but not yet committed
+        scope.update(info("g3", Set.of(), Set.of(new TopicPartition("orders", 1))));
+
+        // g4 has not been indexed and is always a candidate
+        assertEquals(List.of("g1", "g3", "g4"), scope.candidates(GROUPS, Pattern.compile("orders")));
+        assertEquals(List.of("g2", "g4"), scope.candidates(GROUPS, Pattern.compile("pay")));
+        assertEquals(List.of("g4"), scope.candidates(GROUPS, Pattern.compile("shipments")));
+
+        // Group now consumes a different topic
+        scope.update(info("g1", Set.of(new TopicPartition("payments", 0)), Set.of()));
+        assertEquals(List.of("g3", "g4"), scope.candidates(GROUPS, Pattern.compile("orders")));
+    }
+
+    @Test
+    void testExcludedGroupsDescribedAgain() {
+        ConsumerGroupTopicIndex.Scope scope = new ConsumerGroupTopicIndex(60_000).scope("user1");
+
+        scope.update(info("g1", Set.of(new TopicPartition("orders", 0)), Set.of()));
+        scope.update(info("g2", Set.of(new TopicPartition("orders", 0)), Set.of()));
+        scope.update(info("g3", Set.of(new TopicPartition("orders", 0)), Set.of()));
+        scope.update(info("g4", Set.of(new TopicPartition("payments", 0)), Set.of()));
+
+        // Since indexed, g1 has been assigned payments and g3 has no members
+        Map<String, ConsumerGroupDescription> descriptions = Map.of(
+            "g1", info("g1", Set.of(), Set.of(new TopicPartition("payments", 1))).getDescription(),
+            "g2", info("g2", Set.of(), Set.of(new TopicPartition("orders", 1))).getDescription(),
+            "g3", new ConsumerGroupDescription("g3", false, List.of(), "", ConsumerGroupState.EMPTY, null));
+        FakeAdminClient cluster = new FakeAdminClient()
+            .on("describeConsumerGroups", args -> Future.succeededFuture(descriptions));
+
+        List<String> candidates = scope.candidates(cluster.client(), GROUPS, Pattern.compile("payments")).result();
+
+        assertEquals(List.of("g1", "g3", "g4"), candidates);
+        assertEquals(Set.of("g1", "g2", "g3"), Set.copyOf((Collection<?>) cluster.requests("describeConsumerGroups").get(0)));
+    }
+
+    @Test
+    void testNothingDescribedWhenNoGroupsExcluded() {
+        FakeAdminClient cluster = new FakeAdminClient();
+
+        assertEquals(GROUPS, new ConsumerGroupTopicIndex(60_000).scope("user1").candidates(cluster.client(), GROUPS, Pattern.compile("orders")).result());
+        assertEquals(List.of(), cluster.requests("describeConsumerGroups"));
+    }
+
+    @Test
+    void testScopesAreSeparate() {
+        ConsumerGroupTopicIndex index = new ConsumerGroupTopicIndex(60_000);
+
+        index.scope("user1").update(info("g1", Set.of(new TopicPartition("orders", 0)), Set.of()));
+
+        assertEquals(GROUPS, index.scope("user2").candidates(GROUPS, Pattern.compile("payments")));
+        assertEquals(List.of("g2", "g3", "g4"), index.scope("user1").candidates(GROUPS, Pattern.compile("payments")));
+    }
+
+    @Test
+    void testRemovedGroupIsCandidate() {
+        ConsumerGroupTopicIndex index = new ConsumerGroupTopicIndex(60_000);
+        ConsumerGroupTopicIndex.Scope scope = index.scope("user1");
+
+        scope.update(info("g1", Set.of(new TopicPartition("orders", 0)), Set.of()));
+        index.remove("g1");
+
+        assertEquals(GROUPS, scope.candidates(GROUPS, Pattern.compile("payments")));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testDisabledIndex() {
+        ConsumerGroupTopicIndex index = new ConsumerGroupTopicIndex(0);
+        ConsumerGroupTopicIndex.Scope scope = index.scope("user1");
+
+        scope.update(info("g1", Set.of(new TopicPartition("orders", 0)), Set.of()));
+
+        assertEquals(GROUPS, scope.candidates(GROUPS, Pattern.compile("payments")));
+        assertEquals(0, index.size());
+    }
+
+    static ConsumerGroupInfo info(String groupId, Set<TopicPartition> committed, Set<TopicPartition> assigned) {
+        ConsumerGroupDescription description = new ConsumerGroupDescription(groupId, false,
+            List.of(ConsumerGroupOperationsTest.member("member-1", assigned)),
+            "range", ConsumerGroupState.STABLE, null);
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        committed.forEach(partition -> offsets.put(partition, new OffsetAndMetadata(0, null)));
+
+        return new ConsumerGroupInfo(description, offsets);
+    }
+}
@@ -0,0 +1,73 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.kafka.client.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EndOffsetHistoryTest {
+
+    static final TopicPartition P0 = new TopicPartition("topic", 0);
+
+    @Test
+    void testTimeLagInterpolated() {
+        EndOffsetHistory history = new EndOffsetHistory(10, 1000);
+        history.record(P0, 100, 10_000);
+        history.record(P0, 200, 20_000);
+        history.record(P0, 400, 30_000);
+
+        // Caught up
+        assertEquals(0, history.timeLag(P0, 400, 35_000));
+        // End offset passed 149 half way between the first two samples
+        assertEquals(20_000, history.timeLag(P0, 149, 35_000));
+        assertEquals(10_000, history.timeLag(P0, 299, 35_000));
+        // Older than the history, at least the age of the oldest sample
+        assertEquals(25_000, history.timeLag(P0, 50, 35_000));
+        assertEquals(EndOffsetHistory.UNKNOWN, history.timeLag(new TopicPartition("topic", 1), 0, 35_000));
+    }
+
+    @Test
+    void testSamplesWithinIntervalReplaced() {
+        EndOffsetHistory history = new EndOffsetHistory(10, 1000);
+        history.record(P0, 100, 10_000);
+        history.record(P0, 200, 11_000);
+        history.record(P0, 250, 11_500);
+        history.record(P0, 300, 11_900);
+
+        // Retained samples: (10000, 100), (11000, 200), (11900, 300)
+        assertEquals(1000, history.timeLag(P0, 199, 12_000));
+        assertEquals(550, history.timeLag(P0, 249, 12_000));
+    }
+
+    @Test
+    void testRingBufferOverwritesOldest() {
+        EndOffsetHistory history = new EndOffsetHistory(3, 0);
+
+        for (int i = 1; i <= 5; i++) {
+            history.record(P0, i * 100L, i * 1000L);
+        }
+
+        // Retained samples: 300, 400, 500
+        assertEquals(2000, history.timeLag(P0, 100, 5000));
+        assertEquals(500, history.timeLag(P0, 449, 5000));
+    }
+
+    @Test
+    void testTruncationResetsHistory() {
+        EndOffsetHistory history = new EndOffsetHistory(10, 0);
+        history.record(P0, 500, 1000);
+        history.record(P0, 10, 2000);
+
+        assertEquals(1000, history.timeLag(P0, 0, 3000));
+        assertEquals(0, history.timeLag(P0, 10, 3000));
+    }
+
+    @Test
+    void testDisabled() {
+        EndOffsetHistory history = new EndOffsetHistory(0, 0);
+        history.record(P0, 100, 1000);
+
+        assertEquals(EndOffsetHistory.UNKNOWN, history.timeLag(P0, 0, 2000));
+        assertEquals(0, history.partitionCount());
+    }
+}
@@ -0,0 +1,94 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import org.apache.kafka.clients.admin.Admin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Kafka Admin clients (both the Vert.x and the Kafka client) answering only the requests
+ * given responses by a test, and recording the first argument of each request.
+ */
+class FakeAdminClient implements InvocationHandler {
+
+    private final Map<String, Function<Object[], Object>> responses = new ConcurrentHashMap<>();
+    private final Map<String, List<Object>> requests = new ConcurrentHashMap<>();
+
+    /**
+     * Respond to requests of the named method. For the Vert.x client, the response is the
+     * future returned (or passed to the handler argument).
+     */
+    FakeAdminClient on(String method, Function<Object[], Object> response) {
+        responses.put(method, response);
+        return this;
+    }
+
+    /**
+     * @return the first argument of each request of the named method, in the order made
+     */
+    List<Object> requests(String method) {
+        return requests.getOrDefault(method, List.of());
+    }
+
+    KafkaAdminClient client() {
+        return (KafkaAdminClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {KafkaAdminClient.class}, this);
+    }
+
+    Admin admin() {
+        return (Admin) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Admin.class}, this);
+    }
+
+    /**
+     * Create a result of a Kafka Admin client request, where the result's constructor is not
+     * accessible (e.g. {@link org.apache.kafka.clients.admin.AlterConfigsResult}).
+     *
+     * @param futures the futures of the result, by resource
+     */
+    static <T> T result(Class<T> type, Map<?, ?> futures) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor(Map.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(futures);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            return "toString".equals(method.getName()) ? "FakeAdminClient" : method.getName().equals("hashCode") ? hashCode() : proxy == args[0];
+        }
+
+        Function<Object[], Object> response = responses.get(method.getName());
+
+        if (response == null) {
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+        Object[] arguments = args != null ? args : new Object[0];
+        requests.computeIfAbsent(method.getName(), name -> new CopyOnWriteArrayList<>())
+            .add(arguments.length > 0 && !(arguments[0] instanceof Handler) ? arguments[0] : null);
+
+        Object result = response.apply(arguments);
+
+        if (arguments.length > 0 && arguments[arguments.length - 1] instanceof Handler) {
+            ((Future<Object>) result).onComplete((Handler<AsyncResult<Object>>) arguments[arguments.length - 1]);
+            return null;
+        }
+
+        return result;
+    }
+}
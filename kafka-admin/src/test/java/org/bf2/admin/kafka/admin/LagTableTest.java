@@ -0,0 +1,68 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LagTableTest {
+
+    @Test
+    void testOffsetsAndLag() {
+        TopicPartition a0 = new TopicPartition("a", 0);
+        TopicPartition a1 = new TopicPartition("a", 1);
+        TopicPartition a3 = new TopicPartition("a", 3);
+        TopicPartition b1 = new TopicPartition("b", 1);
+        TopicPartition c0 = new TopicPartition("c", 0);
+
+        Map<TopicPartition, OffsetAndMetadata> committed = new HashMap<>();
+        committed.put(a0, new OffsetAndMetadata(90, null));
+        committed.put(a3, null);
+        committed.put(b1, new OffsetAndMetadata(50, null));
+        committed.put(c0, new OffsetAndMetadata(5, null));
+
+        ConsumerGroupInfo g1 = group("g1", committed);
+        ConsumerGroupInfo g2 = group("g2", Map.of(a1, new OffsetAndMetadata(7, null)));
+
+        LagTable table = new LagTable(List.of(g1, g2), Map.of(
+            a0, new ListOffsetsResultInfo(100, -1, null),
+            a3, new ListOffsetsResultInfo(300, -1, null),
+            b1, new ListOffsetsResultInfo(50, -1, null)));
+
+        // Maps of committed offsets are released once copied to the table
+        assertNull(g1.getOffsets());
+        assertNull(g2.getOffsets());
+
+        LagTable.Offsets offsets = table.offsets(g1, topic -> true);
+
+        assertArrayEquals(new String[] {"a", "a", "b", "c"}, offsets.topic);
+        assertArrayEquals(new int[] {0, 3, 1, 0}, offsets.partition);
+        assertArrayEquals(new long[] {90, 0, 50, 5}, offsets.committed);
+        // Unknown topic reported with a zero end offset
+        assertArrayEquals(new long[] {100, 300, 50, 0}, offsets.end);
+        assertArrayEquals(new long[] {10, 300, 0, -5}, offsets.lag);
+
+        offsets = table.offsets(g1, "b"::equals);
+        assertEquals(1, offsets.size());
+        assertEquals(1, offsets.partition[0]);
+
+        // Unknown partition of a known topic
+        offsets = table.offsets(g2, topic -> true);
+        assertArrayEquals(new int[] {1}, offsets.partition);
+        assertArrayEquals(new long[] {0}, offsets.end);
+    }
+
+    static ConsumerGroupInfo group(String groupId, Map<TopicPartition, OffsetAndMetadata> committed) {
+        return new ConsumerGroupInfo(new ConsumerGroupDescription(groupId, false, List.of(), "range", ConsumerGroupState.EMPTY, null), committed);
+    }
+}
@@ -0,0 +1,129 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.admin.OffsetSpec;
+import io.vertx.kafka.client.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogEndOffsetCacheTest {
+
+    static final TopicPartition P0 = new TopicPartition("topic", 0);
+    static final TopicPartition P1 = new TopicPartition("topic", 1);
+    static final TopicPartition P2 = new TopicPartition("topic", 2);
+
+    /**
+     * Requests sent to the fake client, completed by the test.
+     */
+    final List<Map<TopicPartition, OffsetSpec>> requests = new ArrayList<>();
+    final List<Promise<Map<TopicPartition, ListOffsetsResultInfo>>> responses = new ArrayList<>();
+
+    @Test
+    void testCachedOffsetsReused() {
+        LogEndOffsetCache cache = new LogEndOffsetCache(60_000);
+        KafkaAdminClient client = client();
+
+        Future<Map<TopicPartition, ListOffsetsResultInfo>> first = cache.latestOffsets(client, List.of(P0, P1));
+        respond(0);
+        assertTrue(first.succeeded());
+
+        Future<Map<TopicPartition, ListOffsetsResultInfo>> second = cache.latestOffsets(client, List.of(P0, P1));
+        assertTrue(second.succeeded());
+        assertEquals(1, requests.size());
+        assertEquals(first.result().get(P1).getOffset(), second.result().get(P1).getOffset());
+    }
+
+    @Test
+    void testConcurrentRequestsCoalesced() {
+        LogEndOffsetCache cache = new LogEndOffsetCache(60_000);
+        KafkaAdminClient client = client();
+
+        Future<Map<TopicPartition, ListOffsetsResultInfo>> first = cache.latestOffsets(client, List.of(P0, P1));
+        Future<Map<TopicPartition, ListOffsetsResultInfo>> second = cache.latestOffsets(client, List.of(P1, P2));
+
+        // Second request only fetches the partition not already being fetched
+        assertEquals(2, requests.size());
+        assertEquals(List.of(P2), List.copyOf(requests.get(1).keySet()));
+
+        respond(1);
+        assertFalse(second.isComplete());
+        respond(0);
+
+        assertTrue(first.succeeded());
+        assertTrue(second.succeeded());
+        assertEquals(List.of(P1, P2), second.result().keySet().stream().sorted((a, b) -> a.getPartition() - b.getPartition()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testJoinedFailureRetried() {
+        LogEndOffsetCache cache = new LogEndOffsetCache(60_000);
+        KafkaAdminClient client = client();
+
+        Future<Map<TopicPartition, ListOffsetsResultInfo>> first = cache.latestOffsets(client, List.of(P0));
+        Future<Map<TopicPartition, ListOffsetsResultInfo>> second = cache.latestOffsets(client, List.of(P0));
+
+        responses.get(0).fail("Not authorized");
+        assertTrue(first.failed());
+        assertEquals(2, requests.size());
+
+        respond(1);
+        assertTrue(second.succeeded());
+    }
+
+    @Test
+    void testDisabledCacheFetchesEveryTime() {
+        LogEndOffsetCache cache = new LogEndOffsetCache(0);
+        KafkaAdminClient client = client();
+
+        cache.latestOffsets(client, List.of(P0));
+        respond(0);
+        cache.latestOffsets(client, List.of(P0));
+
+        assertEquals(2, requests.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFetchedOffsetsRecordedInHistory() {
+        LogEndOffsetCache cache = new LogEndOffsetCache(60_000, new EndOffsetHistory(10, 0));
+        KafkaAdminClient client = client();
+
+        cache.latestOffsets(client, List.of(P0, P1));
+        respond(0);
+
+        assertEquals(2, cache.history().partitionCount());
+        assertEquals(0, cache.history().timeLag(P1, 101, System.currentTimeMillis()));
+    }
+
+    void respond(int index) {
+        responses.get(index).complete(requests.get(index)
+            .keySet()
+            .stream()
+            .collect(Collectors.toMap(p -> p, p -> new ListOffsetsResultInfo(100L + p.getPartition(), -1, null))));
+    }
+
+    @SuppressWarnings("unchecked")
+    KafkaAdminClient client() {
+        return (KafkaAdminClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {KafkaAdminClient.class}, (proxy, method, args) -> {
+            if ("listOffsets".equals(method.getName()) && args.length == 1) {
+                Promise<Map<TopicPartition, ListOffsetsResultInfo>> response = Promise.promise();
+                requests.add((Map<TopicPartition, OffsetSpec>) args[0]);
+                responses.add(response);
+                return response.future();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package org.bf2.admin.kafka.admin;
+
+import org.bf2.admin.kafka.admin.model.Types;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TopicCacheTest {
+
+    @Test
+    void testCachedTopicReturned() {
+        TopicCache.Scope cache = new TopicCache(60_000, 10).scope("user1");
+        Types.Topic topic = topic("t1");
+        cache.put(topic, cache.generation());
+
+        Types.Topic cached = cache.get("t1");
+        assertEquals("t1", cached.getName());
+        assertSame(topic.getPartitions(), cached.getPartitions());
+        assertSame(topic.getConfig(), cached.getConfig());
+    }
+
+    @Test
+    void testConfigOnlyReturnedToSameCredentials() {
+        TopicCache cache = new TopicCache(60_000, 10);
+        TopicCache.Scope user1 = cache.scope("user1");
+        TopicCache.Scope user2 = cache.scope("user2");
+        Types.Topic topic = topic("t1");
+        user1.put(topic, user1.generation());
+
+        // Description shared, configuration loaded with other credentials is not
+        Types.Topic cached = user2.get("t1");
+        assertSame(topic.getPartitions(), cached.getPartitions());
+        assertNull(cached.getConfig());
+
+        // Configuration loaded by the second user does not replace the first user's
+        Types.Topic described = topic("t1");
+        described.setConfig(List.of(configEntry("retention.ms", "1000")));
+        user2.put(described, user2.generation());
+
+        assertSame(described.getConfig(), user2.get("t1").getConfig());
+        assertSame(topic.getConfig(), user1.get("t1").getConfig());
+        assertNull(cache.scope("user3").get("t1").getConfig());
+    }
+
+    @Test
+    void testDisabledCacheIgnoresTopics() {
+        TopicCache.Scope cache = new TopicCache(0, 10).scope("user1");
+        cache.put(topic("t1"), cache.generation());
+        assertNull(cache.get("t1"));
+    }
+
+    @Test
+    void testInvalidatedTopicRemoved() {
+        TopicCache topicCache = new TopicCache(60_000, 10);
+        TopicCache.Scope cache = topicCache.scope("user1");
+        cache.put(topic("t1"), cache.generation());
+        topicCache.invalidate("t1");
+        assertNull(cache.get("t1"));
+    }
+
+    @Test
+    void testTopicLoadedBeforeInvalidationDiscarded() {
+        TopicCache topicCache = new TopicCache(60_000, 10);
+        TopicCache.Scope cache = topicCache.scope("user1");
+        long generation = cache.generation();
+        topicCache.invalidate("t1");
+        cache.put(topic("t1"), generation);
+        assertNull(cache.get("t1"));
+    }
+
+    @Test
+    void testCacheTrimmedToMaxSize() {
+        TopicCache topicCache = new TopicCache(60_000, 10);
+        TopicCache.Scope cache = topicCache.scope("user1");
+        for (int i = 0; i < 11; i++) {
+            cache.put(topic("t" + i), cache.generation());
+        }
+        assertEquals(9, topicCache.size());
+    }
+
+    static Types.Topic topic(String name) {
+        Types.Topic topic = new Types.Topic();
+        topic.setName(name);
+        topic.setIsInternal(false);
+        topic.setPartitions(List.of(new Types.Partition()));
+        topic.setConfig(List.of(configEntry("retention.ms", "-1")));
+        return topic;
+    }
+
+    static Types.ConfigEntry configEntry(String key, String value) {
+        Types.ConfigEntry entry = new Types.ConfigEntry();
+        entry.setKey(key);
+        entry.setValue(value);
+        return entry;
+    }
+}
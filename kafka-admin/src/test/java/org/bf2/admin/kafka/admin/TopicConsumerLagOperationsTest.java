@@ -0,0 +1,54 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.kafka.admin.ConsumerGroupDescription;
+import io.vertx.kafka.admin.ListOffsetsResultInfo;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.bf2.admin.kafka.admin.model.Types;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopicConsumerLagOperationsTest {
+
+    @Test
+    void testTopicConsumerLag() {
+        TopicPartition a0 = new TopicPartition("a", 0);
+        TopicPartition a1 = new TopicPartition("a", 1);
+        TopicPartition b0 = new TopicPartition("b", 0);
+
+        ConsumerGroupInfo g1 = new ConsumerGroupInfo(new ConsumerGroupDescription("g1", false,
+            List.of(), "range", ConsumerGroupState.EMPTY, null),
+            Map.of(a1, new OffsetAndMetadata(30, null), a0, new OffsetAndMetadata(95, null)));
+        ConsumerGroupInfo g2 = new ConsumerGroupInfo(new ConsumerGroupDescription("g2", false,
+            List.of(ConsumerGroupOperationsTest.member("member-1", Set.of(a0))), "range", ConsumerGroupState.STABLE, null),
+            Map.of(a0, new OffsetAndMetadata(50, null)));
+        ConsumerGroupInfo g3 = new ConsumerGroupInfo(new ConsumerGroupDescription("g3", false,
+            List.of(), "range", ConsumerGroupState.EMPTY, null),
+            Map.of(b0, new OffsetAndMetadata(1, null)));
+
+        LagTable lagTable = new LagTable(List.of(g1, g2, g3), Map.of(
+            a0, new ListOffsetsResultInfo(100, -1, null),
+            a1, new ListOffsetsResultInfo(40, -1, null)));
+
+        Types.TopicConsumerLag result = TopicConsumerLagOperations.getTopicConsumerLag("a", List.of(g1, g2, g3), lagTable);
+        assertEquals("a", result.getTopic());
+        assertEquals(65, result.getTotalLag());
+        // Largest lag first, groups without offsets for the topic omitted
+        assertEquals(List.of("g2", "g1"), result.getGroups().stream().map(Types.TopicConsumerGroupLag::getGroupId).collect(Collectors.toList()));
+
+        Types.TopicConsumerGroupLag group = result.getGroups().get(1);
+        assertEquals("EMPTY", group.getState());
+        assertEquals(15, group.getTotalLag());
+        assertEquals(List.of(0, 1), group.getPartitions().stream().map(Types.PartitionLag::getPartition).collect(Collectors.toList()));
+        assertEquals(30, group.getPartitions().get(1).getOffset());
+        assertEquals(40, group.getPartitions().get(1).getLogEndOffset());
+        assertEquals(10, group.getPartitions().get(1).getLag());
+    }
+}
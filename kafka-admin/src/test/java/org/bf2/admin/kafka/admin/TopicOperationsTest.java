@@ -0,0 +1,465 @@
+package org.bf2.admin.kafka.admin;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.kafka.admin.Config;
+import io.vertx.kafka.admin.ConfigEntry;
+import io.vertx.kafka.admin.TopicDescription;
+import io.vertx.kafka.client.common.ConfigResource;
+import io.vertx.kafka.client.common.Node;
+import io.vertx.kafka.client.common.TopicPartitionInfo;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.AlterConfigsResult;
+import org.apache.kafka.clients.admin.CreateTopicsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.TopicAuthorizationException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.bf2.admin.kafka.admin.model.Types;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicOperationsTest {
+
+    /**
+     * Topics of the fake cluster: name, partition count and retention.ms
+     */
+    static final Object[][] TOPICS = {
+        {"b", 1, 500L},
+        {"a", 3, 100L},
+        {"D", 2, 400L},
+        {"c", 5, 300L},
+        {"e", 4, 200L},
+    };
+
+    Vertx vertx;
+    HttpMetrics httpMetrics;
+
+    @BeforeEach
+    void setup() {
+        vertx = Vertx.vertx(new VertxOptions()
+            .setMetricsOptions(new MicrometerMetricsOptions()
+                .setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true))
+                .setEnabled(true)));
+        httpMetrics = new HttpMetrics();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        await(vertx.close());
+    }
+
+    @Test
+    void testTopicListByNameDescribesOnlyPage() {
+        FakeAdminClient cluster = cluster();
+
+        Types.TopicList page = topicList(cluster, "name", Types.SortDirectionEnum.ASC, 2, 2);
+        assertEquals(List.of("c", "D"), names(page));
+        assertEquals(5, page.getTotal());
+        // No description or configuration needed to sort by name
+        assertEquals(List.of(Set.of("c", "D")), describedTopics(cluster));
+        assertEquals(List.of(Set.of("c", "D")), describedConfigs(cluster));
+
+        cluster = cluster();
+        page = topicList(cluster, "name", Types.SortDirectionEnum.DESC, 1, 2);
+        assertEquals(List.of("e", "D"), names(page));
+        assertEquals(List.of(Set.of("e", "D")), describedTopics(cluster));
+        assertEquals(List.of(Set.of("e", "D")), describedConfigs(cluster));
+    }
+
+    @Test
+    void testTopicListByPartitionsConfiguresOnlyPage() {
+        FakeAdminClient cluster = cluster();
+
+        Types.TopicList page = topicList(cluster, "partitions", Types.SortDirectionEnum.ASC, 1, 2);
+        assertEquals(List.of("b", "D"), names(page));
+        assertEquals(List.of(Set.of("a", "b", "c", "D", "e")), describedTopics(cluster));
+        assertEquals(List.of(Set.of("b", "D")), describedConfigs(cluster));
+
+        cluster = cluster();
+        page = topicList(cluster, "partitions", Types.SortDirectionEnum.DESC, 2, 2);
+        assertEquals(List.of("a", "D"), names(page));
+        assertEquals(List.of(Set.of("a", "b", "c", "D", "e")), describedTopics(cluster));
+        assertEquals(List.of(Set.of("a", "D")), describedConfigs(cluster));
+    }
+
+    @Test
+    void testTopicListByRetentionDescribesOnlyPage() {
+        FakeAdminClient cluster = cluster();
+
+        Types.TopicList page = topicList(cluster, "retention.ms", Types.SortDirectionEnum.ASC, 2, 2);
+        assertEquals(List.of("c", "D"), names(page));
+        assertEquals(List.of(Set.of("c", "D")), describedTopics(cluster));
+        assertEquals(List.of(Set.of("a", "b", "c", "D", "e")), describedConfigs(cluster));
+
+        cluster = cluster();
+        page = topicList(cluster, "retention.ms", Types.SortDirectionEnum.DESC, 3, 2);
+        assertEquals(List.of("a"), names(page));
+        assertEquals(List.of(Set.of("a")), describedTopics(cluster));
+        assertEquals(List.of(Set.of("a", "b", "c", "D", "e")), describedConfigs(cluster));
+    }
+
+    @Test
+    void testTopicListPageComplete() {
+        FakeAdminClient cluster = cluster();
+
+        Types.Topic topic = topicList(cluster, "name", Types.SortDirectionEnum.ASC, 1, 1).getItems().get(0);
+        assertEquals("a", topic.getName());
+        assertEquals(3, topic.getPartitions().size());
+        assertEquals("100", topic.getConfig().get(0).getValue());
+    }
+
+    @Test
+    void testDescribeTopicConfigRequestedConcurrently() throws Exception {
+        Promise<Map<String, TopicDescription>> descriptions = Promise.promise();
+        FakeAdminClient cluster = cluster().on("describeTopics", args -> descriptions.future());
+        Promise<Types.Topic> prom = Promise.promise();
+
+        TopicOperations.describeTopic(cluster.client(), prom, "c", httpMetrics);
+
+        // Configuration requested before the description is returned
+        assertEquals(List.of(Set.of("c")), describedConfigs(cluster));
+        assertFalse(prom.future().isComplete());
+
+        descriptions.complete(Map.of("c", description("c", 5, 0)));
+        Types.Topic topic = await(prom.future());
+        assertEquals("c", topic.getName());
+        assertEquals(5, topic.getPartitions().size());
+        assertEquals("300", topic.getConfig().get(0).getValue());
+    }
+
+    @Test
+    void testDescribeTopicFailsWhenConfigFails() {
+        FakeAdminClient cluster = cluster()
+            .on("describeConfigs", args -> Future.failedFuture(new TopicAuthorizationException("denied")));
+        Promise<Types.Topic> prom = Promise.promise();
+
+        TopicOperations.describeTopic(cluster.client(), prom, "c", httpMetrics);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> await(prom.future()));
+        assertInstanceOf(TopicAuthorizationException.class, error.getCause());
+    }
+
+    @Test
+    void testCreatedTopicFromCreateResponse() throws Exception {
+        FakeAdminClient cluster = cluster()
+            .on("createTopics", args -> new CreatedTopic(3, null));
+
+        Types.Topic topic = createTopic(cluster, false, 10_000);
+        assertEquals("a", topic.getName());
+        assertEquals(List.of(0, 1, 2), topic.getPartitions().stream().map(Types.Partition::getPartition).collect(Collectors.toList()));
+        assertEquals("100", topic.getConfig().get(0).getValue());
+        // Nothing further requested from the cluster
+        assertEquals(List.of(), cluster.requests("describeTopics"));
+        assertEquals(List.of(), cluster.requests("describeConfigs"));
+    }
+
+    @Test
+    void testCreatedTopicDescribedWhenConfigNotReturned() throws Exception {
+        FakeAdminClient cluster = cluster()
+            .on("createTopics", args -> new CreatedTopic(3, new TopicAuthorizationException("denied")));
+
+        Types.Topic topic = createTopic(cluster, false, 10_000);
+        assertEquals(3, topic.getPartitions().size());
+        assertEquals(0, topic.getPartitions().get(0).getLeader().getId());
+        assertEquals("100", topic.getConfig().get(0).getValue());
+        assertEquals(List.of(Set.of("a")), describedTopics(cluster));
+        assertEquals(List.of(Set.of("a")), describedConfigs(cluster));
+    }
+
+    @Test
+    void testCreatedTopicAwaitsLeaders() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        FakeAdminClient cluster = cluster()
+            .on("createTopics", args -> new CreatedTopic(3, null))
+            // No leaders elected on the first attempt
+            .on("describeTopics", args -> Future.succeededFuture(Map.of("a", description("a", 3, attempts.getAndIncrement() == 0 ? -1 : 1))));
+
+        Types.Topic topic = createTopic(cluster, true, 10_000);
+        assertEquals(2, attempts.get());
+        assertEquals(List.of(1, 1, 1), topic.getPartitions().stream().map(p -> p.getLeader().getId()).collect(Collectors.toList()));
+        assertEquals("100", topic.getConfig().get(0).getValue());
+        assertEquals(List.of(), cluster.requests("describeConfigs"));
+    }
+
+    @Test
+    void testCreatedTopicReturnedWhenLeadersTimeOut() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        FakeAdminClient cluster = cluster()
+            .on("createTopics", args -> new CreatedTopic(3, null))
+            .on("describeTopics", args -> {
+                attempts.incrementAndGet();
+                return Future.succeededFuture(Map.of("a", description("a", 3, -1)));
+            });
+
+        long start = System.currentTimeMillis();
+        Types.Topic topic = createTopic(cluster, true, 200);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Attempts after 0ms, 50ms and 150ms, the next would exceed the deadline
+        assertEquals(3, attempts.get());
+        assertTrue(elapsed < 1_000, "Waited " + elapsed + "ms");
+        assertEquals(3, topic.getPartitions().size());
+        assertNull(topic.getPartitions().get(0).getLeader());
+        assertEquals("100", topic.getConfig().get(0).getValue());
+    }
+
+    Types.Topic createTopic(FakeAdminClient cluster, boolean waitForLeaders, long leaderTimeoutMs) throws Exception {
+        Types.NewTopic newTopic = new Types.NewTopic();
+        newTopic.setName("a");
+        newTopic.setSettings(new Types.NewTopicInput());
+        newTopic.getSettings().setNumPartitions(3);
+        Promise<Types.Topic> prom = Promise.promise();
+
+        TopicOperations.createTopic(cluster.client(), cluster.admin(), vertx, prom, newTopic, waitForLeaders, leaderTimeoutMs, httpMetrics);
+
+        return await(prom.future());
+    }
+
+    /**
+     * Result of a CreateTopics request returning the topic's partition count and configuration
+     * (<code>retention.ms=100</code>), or failing to return the configuration.
+     */
+    static class CreatedTopic extends CreateTopicsResult {
+        final int numPartitions;
+        final KafkaFutureImpl<org.apache.kafka.clients.admin.Config> config = new KafkaFutureImpl<>();
+
+        CreatedTopic(int numPartitions, Throwable configError) {
+            super(Map.of());
+            this.numPartitions = numPartitions;
+
+            if (configError != null) {
+                config.completeExceptionally(configError);
+            } else {
+                config.complete(new org.apache.kafka.clients.admin.Config(List.of(new org.apache.kafka.clients.admin.ConfigEntry("retention.ms", "100"))));
+            }
+        }
+
+        @Override
+        public KafkaFuture<Void> all() {
+            return KafkaFuture.completedFuture(null);
+        }
+
+        @Override
+        public KafkaFuture<Integer> numPartitions(String topic) {
+            return KafkaFuture.completedFuture(numPartitions);
+        }
+
+        @Override
+        public KafkaFuture<org.apache.kafka.clients.admin.Config> config(String topic) {
+            return config;
+        }
+    }
+
+    @Nested
+    class UpdateTopic {
+
+        @Test
+        void testConfigValuesSet() {
+            Types.Topic topic = TopicCacheTest.topic("t1");
+            topic.setConfig(List.of(TopicCacheTest.configEntry("retention.ms", "100"), TopicCacheTest.configEntry("cleanup.policy", "delete")));
+
+            Types.Topic updated = TopicOperations.applyUpdate(topic, null, List.of(configChange("retention.ms", "200"), configChange("max.message.bytes", "10")));
+
+            assertEquals(List.of("retention.ms=200", "cleanup.policy=delete", "max.message.bytes=10"), config(updated));
+            assertEquals(1, updated.getPartitions().size());
+        }
+
+        @Test
+        void testConfigValueDeleted() {
+            Types.Topic topic = TopicCacheTest.topic("t1");
+            topic.setConfig(List.of(TopicCacheTest.configEntry("retention.ms", "100"), TopicCacheTest.configEntry("cleanup.policy", "delete")));
+
+            Types.Topic updated = TopicOperations.applyUpdate(topic, null, List.of(configChange("retention.ms", null)));
+
+            // Default value not known, the topic is described again by updateTopic
+            assertEquals(List.of("retention.ms=null", "cleanup.policy=delete"), config(updated));
+        }
+
+        @Test
+        void testPartitionsAdded() {
+            Types.Topic topic = TopicCacheTest.topic("t1");
+            Types.Partition existing = topic.getPartitions().get(0);
+
+            Types.Topic updated = TopicOperations.applyUpdate(topic, 3, List.of());
+
+            assertEquals(3, updated.getPartitions().size());
+            assertSame(existing, updated.getPartitions().get(0));
+            assertEquals(List.of(1, 2), updated.getPartitions().subList(1, 3).stream().map(Types.Partition::getPartition).collect(Collectors.toList()));
+            assertNull(updated.getPartitions().get(1).getReplicas());
+            assertEquals(List.of("retention.ms=-1"), config(updated));
+        }
+
+        @Test
+        void testResponseBuiltFromPriorDescription() throws Exception {
+            FakeAdminClient cluster = cluster().on("createPartitions", args -> Future.succeededFuture());
+
+            Types.Topic topic = updateTopic(cluster, 7, List.of(), false);
+
+            assertEquals(7, topic.getPartitions().size());
+            assertEquals(List.of(Set.of("c")), describedTopics(cluster));
+        }
+
+        @Test
+        void testStrictUpdateDescribesTopicAgain() throws Exception {
+            FakeAdminClient cluster = cluster().on("createPartitions", args -> Future.succeededFuture());
+
+            Types.Topic topic = updateTopic(cluster, 7, List.of(), true);
+
+            // The fake cluster does not add the partitions
+            assertEquals(5, topic.getPartitions().size());
+            assertEquals(List.of(Set.of("c"), Set.of("c")), describedTopics(cluster));
+        }
+
+        @Test
+        void testConfigResetDescribesTopicAgain() throws Exception {
+            FakeAdminClient cluster = cluster()
+                .on("incrementalAlterConfigs", args -> FakeAdminClient.result(AlterConfigsResult.class, Map.of()));
+
+            Types.Topic topic = updateTopic(cluster, null, List.of(configChange("retention.ms", null)), false);
+
+            assertEquals(List.of("retention.ms=300"), config(topic));
+            assertEquals(List.of(Set.of("c"), Set.of("c")), describedTopics(cluster));
+
+            @SuppressWarnings("unchecked")
+            Map<?, Collection<AlterConfigOp>> alterations = (Map<?, Collection<AlterConfigOp>>) cluster.requests("incrementalAlterConfigs").get(0);
+            AlterConfigOp alteration = alterations.values().iterator().next().iterator().next();
+            assertEquals(AlterConfigOp.OpType.DELETE, alteration.opType());
+            assertEquals("retention.ms", alteration.configEntry().name());
+        }
+
+        Types.Topic updateTopic(FakeAdminClient cluster, Integer numPartitions, List<Types.NewTopicConfigEntry> config, boolean strict) throws Exception {
+            Types.UpdatedTopic update = new Types.UpdatedTopic();
+            update.setName("c");
+            update.setNumPartitions(numPartitions);
+            update.setConfig(config);
+            Promise<Types.Topic> prom = Promise.promise();
+
+            TopicOperations.updateTopic(cluster.client(), cluster.admin(), update, strict, prom, httpMetrics);
+
+            return await(prom.future());
+        }
+
+        Types.NewTopicConfigEntry configChange(String key, String value) {
+            Types.NewTopicConfigEntry entry = new Types.NewTopicConfigEntry();
+            entry.setKey(key);
+            entry.setValue(value);
+            return entry;
+        }
+
+        List<String> config(Types.Topic topic) {
+            return topic.getConfig().stream().map(entry -> entry.getKey() + "=" + entry.getValue()).collect(Collectors.toList());
+        }
+    }
+
+    static <T> T await(Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    static Types.TopicList topicList(FakeAdminClient cluster, String sortKey, Types.SortDirectionEnum order, int page, int size) {
+        Types.PageRequest pageRequest = new Types.PageRequest();
+        pageRequest.setPage(page);
+        pageRequest.setSize(size);
+        Promise<Types.TopicList> prom = Promise.promise();
+
+        TopicOperations.getTopicList(cluster.client(), prom, null, pageRequest, new Types.OrderByInput(sortKey, order), new TopicCache(0, 10).scope("user"));
+
+        // The fake cluster responds immediately
+        return prom.future().result();
+    }
+
+    static List<String> names(Types.TopicList topicList) {
+        return topicList.getItems().stream().map(Types.Topic::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the names of the topics in each describeTopics request
+     */
+    @SuppressWarnings("unchecked")
+    static List<Set<String>> describedTopics(FakeAdminClient cluster) {
+        return cluster.requests("describeTopics")
+            .stream()
+            .map(names -> new HashSet<>((Collection<String>) names))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the names of the topics in each describeConfigs request
+     */
+    @SuppressWarnings("unchecked")
+    static List<Set<String>> describedConfigs(FakeAdminClient cluster) {
+        return cluster.requests("describeConfigs")
+            .stream()
+            .map(resources -> ((Collection<ConfigResource>) resources).stream().map(ConfigResource::getName).collect(Collectors.toSet()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Client of a cluster with the {@link #TOPICS}.
+     */
+    @SuppressWarnings("unchecked")
+    static FakeAdminClient cluster() {
+        Map<String, Object[]> topics = new HashMap<>();
+
+        for (Object[] topic : TOPICS) {
+            topics.put((String) topic[0], topic);
+        }
+
+        return new FakeAdminClient()
+            .on("listTopics", args -> Future.succeededFuture(new HashSet<>(topics.keySet())))
+            .on("describeTopics", args -> {
+                Map<String, TopicDescription> descriptions = new HashMap<>();
+                ((List<String>) args[0]).forEach(name -> descriptions.put(name, description(name, (int) topics.get(name)[1], 0)));
+                return Future.succeededFuture(descriptions);
+            })
+            .on("describeConfigs", args -> {
+                Map<ConfigResource, Config> configs = new HashMap<>();
+                ((List<ConfigResource>) args[0]).forEach(resource -> configs.put(resource,
+                    new Config().setEntries(List.of(new ConfigEntry("retention.ms", String.valueOf(topics.get(resource.getName())[2]))))));
+                return Future.succeededFuture(configs);
+            });
+    }
+
+    /**
+     * @param leaderId ID of the leader of every partition, <code>-1</code> for none
+     */
+    static TopicDescription description(String name, int partitions, int leaderId) {
+        List<TopicPartitionInfo> partitionInfos = new ArrayList<>();
+
+        for (int i = 0; i < partitions; i++) {
+            Node node = new Node().setId(0);
+            partitionInfos.add(new TopicPartitionInfo()
+                .setPartition(i)
+                .setLeader(new Node().setId(leaderId))
+                .setReplicas(List.of(node))
+                .setIsr(List.of(node)));
+        }
+
+        return new TopicDescription().setName(name).setInternal(false).setPartitions(partitionInfos);
+    }
+}
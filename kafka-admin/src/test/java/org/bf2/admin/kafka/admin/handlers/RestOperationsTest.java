@@ -1,9 +1,52 @@
 package org.bf2.admin.kafka.admin.handlers;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.apache.kafka.common.errors.InvalidRequestException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.bf2.admin.kafka.admin.AccessControlOperations;
+import org.bf2.admin.kafka.admin.AdminClientPool;
+import org.bf2.admin.kafka.admin.ConsumerGroupExport;
+import org.bf2.admin.kafka.admin.ConsumerGroupTopicIndex;
+import org.bf2.admin.kafka.admin.HttpMetrics;
 import org.bf2.admin.kafka.admin.model.Types;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RestOperationsTest {
@@ -25,4 +68,257 @@ public class RestOperationsTest {
         assertFalse(restOperations.numPartitionsLessThanEqualToMax(settings, MAX_PARTITIONS));
     }
 
+    @Test
+    void testParseGroupStates() {
+        assertEquals(Set.of(), RestOperations.parseGroupStates(List.of()));
+        assertEquals(Set.of(ConsumerGroupState.STABLE, ConsumerGroupState.EMPTY, ConsumerGroupState.DEAD),
+                     RestOperations.parseGroupStates(List.of("STABLE, empty", "DEAD")));
+        assertThrows(InvalidRequestException.class, () -> RestOperations.parseGroupStates(List.of("STABLE,RUNNING")));
+    }
+
+    @Test
+    void testAclRoutesCreateClientsOffEventLoop() throws Exception {
+        Vertx vertx = Vertx.vertx(metricsOptions());
+        AdminClientPool pool = new AdminClientPool(vertx, 10, 60_000);
+        RestOperations ops = new RestOperations(pool, new HttpMetrics(), new AccessControlOperations("{\"topic\":[\"read\"]}"));
+        ClientRecorder.reset();
+
+        try {
+            Router router = router(vertx);
+            router.get("/acls").handler(ops::describeAcls);
+            router.post("/acls").handler(ops::createAcl);
+            router.delete("/acls").handler(ops::deleteAcls);
+            HttpServer server = await(vertx.createHttpServer().requestHandler(router).listen(0));
+            HttpClient client = vertx.createHttpClient();
+
+            String binding = "{\"resourceType\":\"TOPIC\",\"resourceName\":\"t\",\"patternType\":\"LITERAL\","
+                    + "\"principal\":\"User:u\",\"operation\":\"READ\",\"permission\":\"ALLOW\"}";
+
+            // Distinct users, each request creates a new client
+            await(CompositeFuture.all(
+                send(client, server, HttpMethod.GET, "/acls", "user1", ""),
+                send(client, server, HttpMethod.POST, "/acls", "user2", binding),
+                send(client, server, HttpMethod.DELETE, "/acls", "user3", "")));
+
+            assertEquals(3, ClientRecorder.CREATED.get());
+            assertEquals(0, ClientRecorder.CREATED_ON_EVENT_LOOP.get());
+        } finally {
+            await(pool.close());
+            await(vertx.close());
+        }
+    }
+
+    @Test
+    void testExportEndsResponseAndReleasesClient() throws Exception {
+        Vertx vertx = Vertx.vertx(metricsOptions());
+        AdminClientPool pool = new AdminClientPool(vertx, 10, 60_000);
+        HttpMetrics httpMetrics = new HttpMetrics();
+        RestOperations ops = new RestOperations(pool, httpMetrics, new FixedExport(List.of("g1", "g2", "g3"), 2));
+        ClientRecorder.reset();
+
+        try {
+            Router router = router(vertx);
+            router.get("/export").handler(ops::exportGroupOffsets);
+            HttpServer server = await(vertx.createHttpServer().requestHandler(router).listen(0));
+            HttpClient client = vertx.createHttpClient();
+
+            // Written in two batches, completes only once the response has been ended
+            Buffer body = await(send(client, server, HttpMethod.GET, "/export", "user1", ""));
+
+            assertEquals(List.of("g1", "g2", "g3"), body.toString()
+                         .lines()
+                         .map(line -> new JsonObject(line).getString("groupId"))
+                         .collect(Collectors.toList()));
+            assertEquals(1, httpMetrics.getSucceededRequestsCounter().count());
+
+            // The client is only closed once the request's lease has been released
+            await(pool.close());
+            long deadline = System.currentTimeMillis() + 10_000;
+
+            while (ClientRecorder.CLOSED.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, ClientRecorder.CLOSED.get());
+        } finally {
+            await(pool.close());
+            await(vertx.close());
+        }
+    }
+
+    @Test
+    void testExportFailureBeforeFirstLinesRespondsWithError() throws Exception {
+        Vertx vertx = Vertx.vertx(metricsOptions());
+        AdminClientPool pool = new AdminClientPool(vertx, 10, 60_000);
+        HttpMetrics httpMetrics = new HttpMetrics();
+        RestOperations ops = new RestOperations(pool, httpMetrics, new FixedExport(List.of("g1", "g2", "g3"), 2) {
+            @Override
+            protected Future<Buffer> fetchLines(KafkaAdminClient ac, List<String> groupIds, ConsumerGroupTopicIndex.Scope groupIndex) {
+                return Future.failedFuture(new TimeoutException("Timed out fetching the first batch"));
+            }
+        });
+
+        try {
+            Router router = router(vertx);
+            router.get("/export").handler(ops::exportGroupOffsets);
+            HttpServer server = await(vertx.createHttpServer().requestHandler(router).listen(0));
+            HttpClient client = vertx.createHttpClient();
+
+            HttpClientResponse response = await(client.request(HttpMethod.GET, server.actualPort(), "localhost", "/export")
+                .compose(request -> request.putHeader("X-User", "user1").send())
+                .compose(resp -> resp.body().map(resp)));
+
+            assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE.code(), response.statusCode());
+            // Not sent as the export's newline-delimited JSON
+            assertNull(response.getHeader(HttpHeaders.CONTENT_TYPE));
+            assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+            assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE.code(), new JsonObject(await(response.body())).getInteger("code"));
+            assertEquals(1, httpMetrics.getFailedRequestsCounter(HttpResponseStatus.SERVICE_UNAVAILABLE.code()).count());
+        } finally {
+            await(pool.close());
+            await(vertx.close());
+        }
+    }
+
+    @Test
+    void testEmptyExport() throws Exception {
+        Vertx vertx = Vertx.vertx(metricsOptions());
+        AdminClientPool pool = new AdminClientPool(vertx, 10, 60_000);
+        HttpMetrics httpMetrics = new HttpMetrics();
+        RestOperations ops = new RestOperations(pool, httpMetrics, new FixedExport(List.of(), 2));
+
+        try {
+            Router router = router(vertx);
+            router.get("/export").handler(ops::exportGroupOffsets);
+            HttpServer server = await(vertx.createHttpServer().requestHandler(router).listen(0));
+            HttpClient client = vertx.createHttpClient();
+
+            HttpClientResponse response = await(client.request(HttpMethod.GET, server.actualPort(), "localhost", "/export")
+                .compose(request -> request.putHeader("X-User", "user1").send())
+                .compose(resp -> resp.body().map(resp)));
+
+            assertEquals(HttpResponseStatus.OK.code(), response.statusCode());
+            assertEquals("application/x-ndjson", response.getHeader(HttpHeaders.CONTENT_TYPE));
+            assertEquals(0, await(response.body()).length());
+            assertEquals(1, httpMetrics.getSucceededRequestsCounter().count());
+        } finally {
+            await(pool.close());
+            await(vertx.close());
+        }
+    }
+
+    static VertxOptions metricsOptions() {
+        return new VertxOptions()
+            .setMetricsOptions(new MicrometerMetricsOptions()
+                .setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true))
+                .setEnabled(true));
+    }
+
+    /**
+     * Router that configures the Admin client of each request for the user named by the
+     * <code>X-User</code> header, with a broker that is not running and short timeouts.
+     */
+    static Router router(Vertx vertx) {
+        Router router = Router.router(vertx);
+        router.route().handler(BodyHandler.create());
+        router.route().handler(context -> {
+            Map<String, Object> config = new HashMap<>();
+            config.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1");
+            config.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "500");
+            config.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, "1000");
+            config.put(AdminClientConfig.METRIC_REPORTER_CLASSES_CONFIG, ClientRecorder.class.getName());
+            config.put(SaslConfigs.SASL_JAAS_CONFIG, "username=\"" + context.request().getHeader("X-User") + "\"");
+            context.put(CommonHandler.ADMIN_CLIENT_CONFIG, config);
+            context.put(CommonHandler.ADMIN_CLIENT_EXPIRY, AdminClientPool.NO_EXPIRY);
+            context.next();
+        });
+        return router;
+    }
+
+    static Future<Buffer> send(HttpClient client, HttpServer server, HttpMethod method, String uri, String user, String body) {
+        return client.request(method, server.actualPort(), "localhost", uri)
+            .compose(request -> request.putHeader("X-User", user).send(body))
+            .compose(response -> response.body());
+    }
+
+    static <T> T await(Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Export of a fixed list of groups, without fetching any offsets from Kafka.
+     */
+    static class FixedExport extends ConsumerGroupExport {
+        final List<String> groupIds;
+        final int batchSize;
+
+        FixedExport(List<String> groupIds, int batchSize) {
+            super(null, null, null, null);
+            this.groupIds = groupIds;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected int batchSize() {
+            return batchSize;
+        }
+
+        @Override
+        protected Future<List<String>> listGroupIds(KafkaAdminClient ac, Pattern groupIdPattern) {
+            return Future.succeededFuture(groupIds);
+        }
+
+        @Override
+        protected Future<Buffer> fetchLines(KafkaAdminClient ac, List<String> groupIds, ConsumerGroupTopicIndex.Scope groupIndex) {
+            Buffer lines = Buffer.buffer();
+            groupIds.forEach(groupId -> lines.appendBuffer(new JsonObject().put("groupId", groupId).toBuffer()).appendString("\n"));
+            return Future.succeededFuture(lines);
+        }
+    }
+
+    /**
+     * Metrics reporter configured for each Admin client when it is created, recording
+     * whether the client was created on an event loop thread and when it is closed.
+     */
+    public static class ClientRecorder implements MetricsReporter {
+        static final AtomicInteger CREATED = new AtomicInteger();
+        static final AtomicInteger CREATED_ON_EVENT_LOOP = new AtomicInteger();
+        static final AtomicInteger CLOSED = new AtomicInteger();
+
+        static void reset() {
+            CREATED.set(0);
+            CREATED_ON_EVENT_LOOP.set(0);
+            CLOSED.set(0);
+        }
+
+        @Override
+        public void configure(Map<String, ?> configs) {
+            CREATED.incrementAndGet();
+
+            if (Context.isOnEventLoopThread()) {
+                CREATED_ON_EVENT_LOOP.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void init(List<KafkaMetric> metrics) {
+            // Not used
+        }
+
+        @Override
+        public void metricChange(KafkaMetric metric) {
+            // Not used
+        }
+
+        @Override
+        public void metricRemoval(KafkaMetric metric) {
+            // Not used
+        }
+
+        @Override
+        public void close() {
+            CLOSED.incrementAndGet();
+        }
+    }
+
 }